@@ -0,0 +1,219 @@
+package org.example.Lab1;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Batch acceptance of newline-delimited records on a fork-join pool.
+ * Files are split at line boundaries and every worker reads its range through its own buffer,
+ * stepping the automaton byte by byte, so no per-line String is ever created.
+ */
+class BatchMatcher {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long MIN_CHUNK_SIZE = 1 << 20;
+    private static final int STREAM_BATCH_SIZE = 4096;
+
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(READ_BUFFER_SIZE));
+
+    private static class Chunk {
+        final BitSet accepted = new BitSet();
+        int records;
+        long units;
+    }
+
+    static BatchResult acceptAll(CompiledAutomaton automaton, Path path, ForkJoinPool pool) throws IOException {
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long chunkSize = Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 4L));
+
+            List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+            long start = 0;
+            while (start < size) {
+                long end = nextLineStart(channel, Math.min(start + chunkSize, size), size);
+                tasks.add(pool.submit(new FileRange(automaton, channel, start, end, end == size)));
+                start = end;
+            }
+            return merge(tasks, started);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    static BatchResult acceptAll(CompiledAutomaton automaton, Stream<? extends CharSequence> records, ForkJoinPool pool) {
+        long started = System.nanoTime();
+        int maxInFlight = pool.getParallelism() * 2;
+        Deque<ForkJoinTask<Chunk>> inFlight = new ArrayDeque<>();
+        Chunk total = new Chunk();
+
+        Iterator<? extends CharSequence> it = records.iterator();
+        while (it.hasNext()) {
+            List<CharSequence> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+            while (it.hasNext() && batch.size() < STREAM_BATCH_SIZE) {
+                batch.add(it.next());
+            }
+            inFlight.add(pool.submit(new RecordBatch(automaton, batch)));
+            if (inFlight.size() >= maxInFlight) {
+                append(total, inFlight.poll().join());
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            append(total, inFlight.poll().join());
+        }
+        return new BatchResult(total.accepted, total.records, total.units, System.nanoTime() - started);
+    }
+
+    // Smallest position >= from that starts a line (or size)
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        if (from >= size) {
+            return size;
+        }
+        ByteBuffer buffer = READ_BUFFER.get();
+        long position = from - 1;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static BatchResult merge(List<ForkJoinTask<Chunk>> tasks, long started) {
+        Chunk total = new Chunk();
+        for (ForkJoinTask<Chunk> task : tasks) {
+            append(total, task.join());
+        }
+        return new BatchResult(total.accepted, total.records, total.units, System.nanoTime() - started);
+    }
+
+    private static void append(Chunk total, Chunk part) {
+        if ((long) total.records + part.records > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many records for one batch");
+        }
+        for (int i = part.accepted.nextSetBit(0); i >= 0; i = part.accepted.nextSetBit(i + 1)) {
+            total.accepted.set(total.records + i);
+        }
+        total.records += part.records;
+        total.units += part.units;
+    }
+
+    @SuppressWarnings("serial")
+    private static class FileRange extends RecursiveTask<Chunk> {
+        private final CompiledAutomaton automaton;
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final boolean lastRange;
+
+        FileRange(CompiledAutomaton automaton, FileChannel channel, long start, long end, boolean lastRange) {
+            this.automaton = automaton;
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.lastRange = lastRange;
+        }
+
+        @Override
+        protected Chunk compute() {
+            Chunk chunk = new Chunk();
+            ByteBuffer buffer = READ_BUFFER.get();
+            byte[] bytes = buffer.array();
+            int state = automaton.startState();
+            boolean pendingCR = false;
+            boolean inRecord = false;
+
+            try {
+                long position = start;
+                while (position < end) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(bytes.length, end - position));
+                    int read = channel.read(buffer, position);
+                    if (read <= 0) {
+                        break;
+                    }
+                    for (int i = 0; i < read; i++) {
+                        byte b = bytes[i];
+                        if (b == '\n') {
+                            // "\r\n" ends the record too; the pending '\r' is simply dropped
+                            if (automaton.isAccepting(state)) {
+                                chunk.accepted.set(chunk.records);
+                            }
+                            chunk.records++;
+                            state = automaton.startState();
+                            pendingCR = false;
+                            inRecord = false;
+                            continue;
+                        }
+                        if (pendingCR && state != CompiledAutomaton.DEAD) {
+                            state = automaton.step(state, '\r');
+                        }
+                        pendingCR = b == '\r';
+                        if (!pendingCR && state != CompiledAutomaton.DEAD) {
+                            state = automaton.step(state, (char) (b & 0xFF));
+                        }
+                        inRecord = true;
+                    }
+                    position += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            if (lastRange && inRecord) {
+                if (pendingCR && state != CompiledAutomaton.DEAD) {
+                    state = automaton.step(state, '\r');
+                }
+                if (automaton.isAccepting(state)) {
+                    chunk.accepted.set(chunk.records);
+                }
+                chunk.records++;
+            }
+            chunk.units = end - start;
+            return chunk;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class RecordBatch extends RecursiveTask<Chunk> {
+        private final CompiledAutomaton automaton;
+        private final List<CharSequence> records;
+
+        RecordBatch(CompiledAutomaton automaton, List<CharSequence> records) {
+            this.automaton = automaton;
+            this.records = records;
+        }
+
+        @Override
+        protected Chunk compute() {
+            Chunk chunk = new Chunk();
+            for (CharSequence record : records) {
+                if (automaton.isAccepted(record)) {
+                    chunk.accepted.set(chunk.records);
+                }
+                chunk.records++;
+                chunk.units += record.length();
+            }
+            return chunk;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.Lab1;
+
+import java.util.BitSet;
+
+/**
+ * Outcome of a batch acceptance run: bit i is set when record i was accepted,
+ * plus the counters needed to report throughput.
+ */
+public class BatchResult {
+    private final BitSet accepted;
+    private final int records;
+    private final long units;
+    private final long elapsedNanos;
+
+    BatchResult(BitSet accepted, int records, long units, long elapsedNanos) {
+        this.accepted = accepted;
+        this.records = records;
+        this.units = units;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public BitSet accepted() {
+        return accepted;
+    }
+
+    public boolean isAccepted(int record) {
+        return accepted.get(record);
+    }
+
+    public int records() {
+        return records;
+    }
+
+    public int acceptedCount() {
+        return accepted.cardinality();
+    }
+
+    // Bytes read for file input, characters read for stream input
+    public long units() {
+        return units;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double recordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : records * 1e9 / elapsedNanos;
+    }
+
+    public double unitsPerSecond() {
+        return elapsedNanos == 0 ? 0 : units * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d/%d accepted, %d units in %.3f ms (%.0f records/s)",
+                acceptedCount(), records, units, elapsedNanos / 1e6, recordsPerSecond());
+    }
+}
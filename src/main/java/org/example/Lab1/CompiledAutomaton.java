@@ -0,0 +1,97 @@
+package org.example.Lab1;
+
+import java.util.*;
+
+/**
+ * Flat, int-indexed form of a deterministic {@link FiniteAutomaton}.
+ * States are numbered 0..stateCount-1 (0 is the start state), input characters are mapped
+ * to dense symbol indices and the transition function lives in one {@code int[]} table.
+ * Matching does not allocate.
+ */
+public final class CompiledAutomaton {
+
+    public static final int DEAD = -1;
+
+    private final int stateCount;
+    private final char[] alphabet;
+    private final int[] symbolOf;
+    private final int[] table;
+    private final boolean[] accepting;
+
+    CompiledAutomaton(int stateCount, char[] alphabet, int[] table, boolean[] accepting) {
+        this.stateCount = stateCount;
+        this.alphabet = alphabet;
+        this.table = table;
+        this.accepting = accepting;
+
+        int maxChar = alphabet.length == 0 ? 0 : alphabet[alphabet.length - 1];
+        this.symbolOf = new int[maxChar + 1];
+        Arrays.fill(symbolOf, DEAD);
+        for (int i = 0; i < alphabet.length; i++) {
+            symbolOf[alphabet[i]] = i;
+        }
+    }
+
+    public int stateCount() {
+        return stateCount;
+    }
+
+    public int symbolCount() {
+        return alphabet.length;
+    }
+
+    public int startState() {
+        return 0;
+    }
+
+    /** Dense symbol index of {@code c}, or {@link #DEAD} if it is not in the alphabet. */
+    public int symbolOf(char c) {
+        return c < symbolOf.length ? symbolOf[c] : DEAD;
+    }
+
+    /** Character for a dense symbol index; symbols are ordered by character value. */
+    public char symbolChar(int symbol) {
+        return alphabet[symbol];
+    }
+
+    public int next(int state, int symbol) {
+        return table[state * alphabet.length + symbol];
+    }
+
+    /** Transition on a raw character, {@link #DEAD} if the character or the transition is missing. */
+    public int step(int state, char c) {
+        int symbol = symbolOf(c);
+        return symbol == DEAD ? DEAD : table[state * alphabet.length + symbol];
+    }
+
+    public boolean isAccepting(int state) {
+        return state != DEAD && accepting[state];
+    }
+
+    public boolean isAccepted(CharSequence input) {
+        int state = 0;
+        for (int i = 0, n = input.length(); i < n && state != DEAD; i++) {
+            state = step(state, input.charAt(i));
+        }
+        return isAccepting(state);
+    }
+
+    public boolean isAccepted(char[] input, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, input.length);
+        int state = 0;
+        for (int i = offset, end = offset + length; i < end && state != DEAD; i++) {
+            state = step(state, input[i]);
+        }
+        return isAccepting(state);
+    }
+
+    /** Bytes are read as ISO-8859-1, i.e. each byte is one character in 0..255. */
+    public boolean isAccepted(byte[] input, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, input.length);
+        int state = 0;
+        for (int i = offset, end = offset + length; i < end && state != DEAD; i++) {
+            state = step(state, (char) (input[i] & 0xFF));
+        }
+        return isAccepting(state);
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.Lab1;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Lazily enumerates the sentential forms derivable from a nonterminal in at most {@code maxDepth} steps,
+ * always rewriting the leftmost nonterminal. The walk is a depth-first search with an explicit stack,
+ * so memory is bounded by {@code maxDepth} frames no matter how many strings are produced.
+ * Splitting divides the top-level productions, so a parallel stream fans out across them.
+ */
+class DerivationSpliterator implements Spliterator<String> {
+
+    private static class Frame {
+        final String form;
+        final int position;
+        final String nonTerminal;
+        final List<String> options;
+        final int depth;
+        int next;
+
+        Frame(String form, int position, String nonTerminal, List<String> options, int depth) {
+            this.form = form;
+            this.position = position;
+            this.nonTerminal = nonTerminal;
+            this.options = options;
+            this.depth = depth;
+        }
+    }
+
+    private final Map<String, List<String>> productions;
+    private final String[] nonTerminals;
+    private final List<String> topLevel;
+    private final int maxDepth;
+    private final boolean terminalOnly;
+    private final Deque<Frame> stack = new ArrayDeque<>();
+    private int nextTop;
+    private int endTop;
+
+    DerivationSpliterator(Map<String, List<String>> productions, String nonTerminal, int maxDepth, boolean terminalOnly) {
+        this(productions, sortedByLength(productions.keySet()), productions.getOrDefault(nonTerminal, List.of()),
+                0, maxDepth > 0 ? productions.getOrDefault(nonTerminal, List.of()).size() : 0, maxDepth, terminalOnly);
+    }
+
+    private DerivationSpliterator(Map<String, List<String>> productions, String[] nonTerminals, List<String> topLevel,
+                                  int nextTop, int endTop, int maxDepth, boolean terminalOnly) {
+        this.productions = productions;
+        this.nonTerminals = nonTerminals;
+        this.topLevel = topLevel;
+        this.nextTop = nextTop;
+        this.endTop = endTop;
+        this.maxDepth = maxDepth;
+        this.terminalOnly = terminalOnly;
+    }
+
+    // Longest nonterminals first so that e.g. "S1" wins over "S" at the same position
+    private static String[] sortedByLength(Set<String> keys) {
+        String[] sorted = keys.toArray(new String[0]);
+        Arrays.sort(sorted, Comparator.comparingInt(String::length).reversed().thenComparing(Comparator.naturalOrder()));
+        return sorted;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        while (true) {
+            String form;
+            int depth;
+            if (stack.isEmpty()) {
+                if (nextTop >= endTop) {
+                    return false;
+                }
+                form = topLevel.get(nextTop++);
+                depth = 1;
+            } else {
+                Frame frame = stack.peek();
+                if (frame.next >= frame.options.size()) {
+                    stack.pop();
+                    continue;
+                }
+                String option = frame.options.get(frame.next++);
+                form = frame.form.substring(0, frame.position) + option
+                        + frame.form.substring(frame.position + frame.nonTerminal.length());
+                depth = frame.depth + 1;
+            }
+
+            boolean complete = expand(form, depth);
+            if (complete || !terminalOnly) {
+                action.accept(form);
+                return true;
+            }
+        }
+    }
+
+    // Pushes a frame for the leftmost nonterminal of form, returns true if form is terminal-only
+    private boolean expand(String form, int depth) {
+        for (int i = 0; i < form.length(); i++) {
+            for (String nonTerminal : nonTerminals) {
+                if (form.startsWith(nonTerminal, i)) {
+                    if (depth < maxDepth) {
+                        stack.push(new Frame(form, i, nonTerminal, productions.get(nonTerminal), depth));
+                    }
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // The prefix takes over the derivation in progress plus the first half of the unstarted top-level productions
+    @Override
+    public Spliterator<String> trySplit() {
+        int remaining = endTop - nextTop;
+        if (remaining == 0 || (remaining == 1 && stack.isEmpty())) {
+            return null;
+        }
+        int mid = nextTop + remaining / 2;
+        DerivationSpliterator prefix = new DerivationSpliterator(productions, nonTerminals, topLevel,
+                nextTop, mid, maxDepth, terminalOnly);
+        prefix.stack.addAll(stack);
+        stack.clear();
+        nextTop = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | IMMUTABLE;
+    }
+}
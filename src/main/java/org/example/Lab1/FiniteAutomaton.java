@@ -1,6 +1,10 @@
 package org.example.Lab1;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 public class FiniteAutomaton {
 
@@ -23,43 +27,227 @@ public class FiniteAutomaton {
     }
 
 
+    // Automata compiled from grammars, keyed by start symbol and productions, shared process-wide;
+    // the least recently used entry is dropped once the cache is full
+    private static final int CACHE_SIZE = 64;
+    @SuppressWarnings("serial")
+    private static final Map<List<Object>, FiniteAutomaton> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, FiniteAutomaton> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     private final State startState;
     private final Set<State> acceptingStates;
+    private final CompiledAutomaton compiled;
+    // Built on the first search; it is immutable, so a racing duplicate is only wasted work
+    private SubstringSearcher searcher;
 
     public FiniteAutomaton(Grammar grammar) {
+        FiniteAutomaton shared = of(grammar);
+        this.startState = shared.startState;
+        this.acceptingStates = shared.acceptingStates;
+        this.compiled = shared.compiled;
+    }
+
+    private FiniteAutomaton(Map<String, List<String>> productions, String startSymbol) {
         this.startState = new State("q0");
         this.acceptingStates = new HashSet<>();
-        buildAutomaton(grammar);
+        buildAutomaton(productions, startSymbol);
+        this.compiled = compile();
     }
 
-    private void buildAutomaton(Grammar grammar) {
-
+    // Returns the cached automaton for a grammar with the same content, building it on first use
+    public static FiniteAutomaton of(Grammar grammar) {
+        Map<String, List<String>> productions = grammar.getProductions();
+        String startSymbol = grammar.getStartSymbol();
+        List<Object> key = List.of(startSymbol, productions);
+        synchronized (CACHE) {
+            FiniteAutomaton cached = CACHE.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Built outside the lock so one large grammar does not hold up lookups of others
+        FiniteAutomaton built = new FiniteAutomaton(productions, startSymbol);
+        synchronized (CACHE) {
+            FiniteAutomaton raced = CACHE.putIfAbsent(key, built);
+            return raced != null ? raced : built;
+        }
+    }
 
-        State q0 = startState;
-        State q1 = new State("q1");
-        State q2 = new State("q2");
+    // Right-linear grammar -> NFA (one state per nonterminal plus a final state) -> DFA via subset construction
+    private void buildAutomaton(Map<String, List<String>> productions, String startSymbol) {
+        if (!productions.containsKey(startSymbol)) {
+            throw new IllegalArgumentException("Start symbol has no productions: " + startSymbol);
+        }
 
+        Map<String, Integer> ids = new HashMap<>();
+        List<Map<Character, Set<Integer>>> nfa = new ArrayList<>();
+        for (String nonTerminal : productions.keySet()) {
+            ids.put(nonTerminal, nfa.size());
+            nfa.add(new HashMap<>());
+        }
+        int finalState = nfa.size();
+        nfa.add(new HashMap<>());
+        Set<Integer> nfaFinal = new HashSet<>(Collections.singleton(finalState));
+
+        for (Map.Entry<String, List<String>> entry : productions.entrySet()) {
+            for (String production : entry.getValue()) {
+                String target = null;
+                for (String candidate : ids.keySet()) {
+                    if (production.endsWith(candidate) && (target == null || candidate.length() > target.length())) {
+                        target = candidate;
+                    }
+                }
+                String word = target == null ? production : production.substring(0, production.length() - target.length());
+                int from = ids.get(entry.getKey());
+                int to = target == null ? finalState : ids.get(target);
+
+                if (word.isEmpty()) {
+                    if (target != null) {
+                        throw new IllegalArgumentException("Unit production is not right-linear: "
+                                + entry.getKey() + " -> " + production);
+                    }
+                    nfaFinal.add(from);
+                    continue;
+                }
+
+                for (int i = 0; i < word.length(); i++) {
+                    int next = i == word.length() - 1 ? to : nfa.size();
+                    if (next == nfa.size()) {
+                        nfa.add(new HashMap<>());
+                    }
+                    nfa.get(from).computeIfAbsent(word.charAt(i), c -> new HashSet<>()).add(next);
+                    from = next;
+                }
+            }
+        }
 
-        q0.addTransition("a", q1);
-        q1.addTransition("b", q1);
-        q1.addTransition("c", q2);
-        q2.addTransition("d", q2);
-        q2.addTransition("a", q0);
+        Map<Set<Integer>, State> dfaStates = new HashMap<>();
+        Queue<Set<Integer>> queue = new ArrayDeque<>();
+        Set<Integer> startSet = Collections.singleton(ids.get(startSymbol));
+        dfaStates.put(startSet, startState);
+        queue.add(startSet);
+
+        while (!queue.isEmpty()) {
+            Set<Integer> currentSet = queue.poll();
+            State current = dfaStates.get(currentSet);
+            if (!Collections.disjoint(currentSet, nfaFinal)) {
+                acceptingStates.add(current);
+            }
 
+            Map<Character, Set<Integer>> moves = new TreeMap<>();
+            for (int state : currentSet) {
+                for (Map.Entry<Character, Set<Integer>> move : nfa.get(state).entrySet()) {
+                    moves.computeIfAbsent(move.getKey(), c -> new TreeSet<>()).addAll(move.getValue());
+                }
+            }
 
-        acceptingStates.add(q0);
+            for (Map.Entry<Character, Set<Integer>> move : moves.entrySet()) {
+                State next = dfaStates.get(move.getValue());
+                if (next == null) {
+                    next = new State("q" + dfaStates.size());
+                    dfaStates.put(move.getValue(), next);
+                    queue.add(move.getValue());
+                }
+                current.addTransition(String.valueOf(move.getKey()), next);
+            }
+        }
     }
 
+    // Number the states reachable from q0 and flatten the State graph into an int table
+    private CompiledAutomaton compile() {
+        Map<State, Integer> ids = new LinkedHashMap<>();
+        Deque<State> queue = new ArrayDeque<>();
+        ids.put(startState, 0);
+        queue.add(startState);
+        SortedSet<Character> symbols = new TreeSet<>();
+
+        while (!queue.isEmpty()) {
+            State state = queue.poll();
+            for (Map.Entry<String, State> entry : state.transitions.entrySet()) {
+                if (entry.getKey().length() != 1) {
+                    throw new IllegalStateException("Transition symbol must be a single character: " + entry.getKey());
+                }
+                symbols.add(entry.getKey().charAt(0));
+                if (!ids.containsKey(entry.getValue())) {
+                    ids.put(entry.getValue(), ids.size());
+                    queue.add(entry.getValue());
+                }
+            }
+        }
 
-    public boolean isAccepted(String input) {
-        State currentState = startState;
-        for (char symbol : input.toCharArray()) {
-            String symbolStr = String.valueOf(symbol);
-            currentState = currentState.getTransition(symbolStr);
-            if (currentState == null) {
-                return false;
+        char[] alphabet = new char[symbols.size()];
+        int k = 0;
+        for (char c : symbols) {
+            alphabet[k++] = c;
+        }
+
+        int stateCount = ids.size();
+        int[] table = new int[stateCount * alphabet.length];
+        Arrays.fill(table, CompiledAutomaton.DEAD);
+        boolean[] accepting = new boolean[stateCount];
+        for (Map.Entry<State, Integer> entry : ids.entrySet()) {
+            int from = entry.getValue();
+            accepting[from] = acceptingStates.contains(entry.getKey());
+            for (Map.Entry<String, State> t : entry.getKey().transitions.entrySet()) {
+                int symbol = Arrays.binarySearch(alphabet, t.getKey().charAt(0));
+                table[from * alphabet.length + symbol] = ids.get(t.getValue());
             }
         }
-        return acceptingStates.contains(currentState);
+        return new CompiledAutomaton(stateCount, alphabet, table, accepting);
+    }
+
+    public CompiledAutomaton compiled() {
+        return compiled;
+    }
+
+    public boolean isAccepted(CharSequence input) {
+        return compiled.isAccepted(input);
+    }
+
+    public boolean isAccepted(char[] input, int offset, int length) {
+        return compiled.isAccepted(input, offset, length);
+    }
+
+    public boolean isAccepted(byte[] input, int offset, int length) {
+        return compiled.isAccepted(input, offset, length);
+    }
+
+    // Checks every newline-delimited record of a file; bit i of the result is record i
+    public BatchResult acceptAll(Path path) throws IOException {
+        return acceptAll(path, ForkJoinPool.commonPool());
+    }
+
+    public BatchResult acceptAll(Path path, ForkJoinPool pool) throws IOException {
+        return BatchMatcher.acceptAll(compiled, path, pool);
+    }
+
+    public BatchResult acceptAll(Stream<? extends CharSequence> records) {
+        return acceptAll(records, ForkJoinPool.commonPool());
+    }
+
+    public BatchResult acceptAll(Stream<? extends CharSequence> records, ForkJoinPool pool) {
+        return BatchMatcher.acceptAll(compiled, records, pool);
+    }
+
+    // Leftmost-longest, non-overlapping occurrences of the language inside text
+    public void findAll(CharSequence text, SubstringSearcher.MatchCallback callback) {
+        searcher().findAll(text, callback);
+    }
+
+    public void findAll(Path path, SubstringSearcher.MatchCallback callback) throws IOException {
+        searcher().findAll(path, callback);
+    }
+
+    private SubstringSearcher searcher() {
+        SubstringSearcher built = searcher;
+        if (built == null) {
+            built = new SubstringSearcher(this);
+            searcher = built;
+        }
+        return built;
     }
 }
@@ -1,6 +1,8 @@
 package org.example.Lab1;
 
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Grammar {
 
@@ -12,9 +14,11 @@ public class Grammar {
     private static final Set<String> terminals = new HashSet<>(Arrays.asList("a", "b", "c", "d"));
 
 
+    private final String startSymbol;
     private final Map<String, List<String>> productions;
 
     public Grammar() {
+        startSymbol = S;
         productions = new HashMap<>();
 
         productions.put(S, Arrays.asList("aS", "bS", "cD"));
@@ -22,6 +26,28 @@ public class Grammar {
         productions.put(F, Arrays.asList("bS", "a"));
     }
 
+    public Grammar(String startSymbol, Map<String, List<String>> productions) {
+        this.startSymbol = startSymbol;
+        this.productions = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : productions.entrySet()) {
+            this.productions.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+    }
+
+
+    public String getStartSymbol() {
+        return startSymbol;
+    }
+
+    // Immutable snapshot of the productions; equal grammars yield equal maps
+    public Map<String, List<String>> getProductions() {
+        Map<String, List<String>> copy = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : productions.entrySet()) {
+            copy.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
 
     public List<String> generateStrings(String nonTerminal, int maxDepth) {
         List<String> result = new ArrayList<>();
@@ -30,6 +56,17 @@ public class Grammar {
     }
 
 
+    // Lazy, bounded-memory enumeration of what nonTerminal derives in at most maxDepth steps.
+    // With terminalOnly set, sentential forms that still contain nonterminals are skipped.
+    public Stream<String> streamStrings(String nonTerminal, int maxDepth, boolean terminalOnly) {
+        return StreamSupport.stream(new DerivationSpliterator(productions, nonTerminal, maxDepth, terminalOnly), false);
+    }
+
+    public Iterator<String> iterateStrings(String nonTerminal, int maxDepth, boolean terminalOnly) {
+        return Spliterators.iterator(new DerivationSpliterator(productions, nonTerminal, maxDepth, terminalOnly));
+    }
+
+
     private void generateRecursive(String nonTerminal, String currentString, List<String> result, int maxDepth, int depth) {
         if (depth >= maxDepth) return;
 
@@ -0,0 +1,187 @@
+package org.example.Lab1;
+
+import java.util.*;
+
+/**
+ * Runs up to 64 automata over one input in a single scan. The product automaton (one state per tuple of
+ * component states) is built lazily, one transition at a time, the first time a scan needs it; after warm-up
+ * every character costs one table lookup regardless of how many automata are combined.
+ * If the product grows past {@code maxStates}, scans continue by stepping the components in lockstep.
+ * Instances are not thread-safe; use one per thread.
+ */
+public class MultiMatcher {
+
+    public static final int MAX_AUTOMATA = 64;
+    private static final int DEFAULT_MAX_STATES = 1 << 16;
+    private static final int UNKNOWN = -2;
+
+    private static class Tuple {
+        final int[] states;
+        final int hash;
+
+        Tuple(int[] states) {
+            this.states = states;
+            this.hash = Arrays.hashCode(states);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Tuple && Arrays.equals(states, ((Tuple) o).states);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private final CompiledAutomaton[] automata;
+    private final char[] alphabet;
+    private final int[] symbolOf;
+    private final int[][] localSymbol;
+    private final int maxStates;
+
+    private final List<int[]> tuples = new ArrayList<>();
+    private final Map<Tuple, Integer> ids = new HashMap<>();
+    private int[] table;
+    private long[] acceptMask;
+    private final int deadState;
+
+    public MultiMatcher(List<FiniteAutomaton> automata) {
+        this(automata, DEFAULT_MAX_STATES);
+    }
+
+    public MultiMatcher(List<FiniteAutomaton> automata, int maxStates) {
+        if (automata.size() > MAX_AUTOMATA) {
+            throw new IllegalArgumentException("At most " + MAX_AUTOMATA + " automata can be combined");
+        }
+        this.maxStates = maxStates;
+        this.automata = new CompiledAutomaton[automata.size()];
+        SortedSet<Character> symbols = new TreeSet<>();
+        for (int i = 0; i < automata.size(); i++) {
+            this.automata[i] = automata.get(i).compiled();
+            for (int symbol = 0; symbol < this.automata[i].symbolCount(); symbol++) {
+                symbols.add(this.automata[i].symbolChar(symbol));
+            }
+        }
+
+        alphabet = new char[symbols.size()];
+        int k = 0;
+        for (char c : symbols) {
+            alphabet[k++] = c;
+        }
+        symbolOf = new int[alphabet.length == 0 ? 0 : alphabet[alphabet.length - 1] + 1];
+        Arrays.fill(symbolOf, CompiledAutomaton.DEAD);
+        localSymbol = new int[this.automata.length][alphabet.length];
+        for (int symbol = 0; symbol < alphabet.length; symbol++) {
+            symbolOf[alphabet[symbol]] = symbol;
+            for (int i = 0; i < this.automata.length; i++) {
+                localSymbol[i][symbol] = this.automata[i].symbolOf(alphabet[symbol]);
+            }
+        }
+
+        table = new int[16 * Math.max(1, alphabet.length)];
+        acceptMask = new long[16];
+        int[] start = new int[this.automata.length];
+        for (int i = 0; i < start.length; i++) {
+            start[i] = this.automata[i].startState();
+        }
+        intern(start);
+        int[] dead = new int[this.automata.length];
+        Arrays.fill(dead, CompiledAutomaton.DEAD);
+        deadState = intern(dead);
+    }
+
+    public int size() {
+        return automata.length;
+    }
+
+    // Number of product states discovered so far
+    public int productStates() {
+        return tuples.size();
+    }
+
+    /** Bit i of the result is set when automaton i accepts the input. */
+    public long match(CharSequence input) {
+        int state = 0;
+        int width = alphabet.length;
+        for (int i = 0, n = input.length(); i < n; i++) {
+            if (state == deadState) {
+                return 0;
+            }
+            char c = input.charAt(i);
+            int symbol = c < symbolOf.length ? symbolOf[c] : CompiledAutomaton.DEAD;
+            if (symbol == CompiledAutomaton.DEAD) {
+                return 0;
+            }
+            int next = table[state * width + symbol];
+            if (next == UNKNOWN) {
+                if (tuples.size() >= maxStates) {
+                    return matchLockstep(tuples.get(state).clone(), input, i);
+                }
+                next = computeTransition(state, symbol);
+            }
+            state = next;
+        }
+        return acceptMask[state];
+    }
+
+    private long matchLockstep(int[] states, CharSequence input, int from) {
+        for (int i = from, n = input.length(); i < n; i++) {
+            char c = input.charAt(i);
+            for (int a = 0; a < automata.length; a++) {
+                if (states[a] != CompiledAutomaton.DEAD) {
+                    states[a] = automata[a].step(states[a], c);
+                }
+            }
+        }
+        return mask(states);
+    }
+
+    private int computeTransition(int state, int symbol) {
+        int[] current = tuples.get(state);
+        int[] next = new int[current.length];
+        for (int a = 0; a < automata.length; a++) {
+            int local = localSymbol[a][symbol];
+            next[a] = current[a] == CompiledAutomaton.DEAD || local == CompiledAutomaton.DEAD
+                    ? CompiledAutomaton.DEAD
+                    : automata[a].next(current[a], local);
+        }
+        int id = intern(next);
+        table[state * alphabet.length + symbol] = id;
+        return id;
+    }
+
+    private int intern(int[] states) {
+        Tuple key = new Tuple(states);
+        Integer existing = ids.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int id = tuples.size();
+        tuples.add(states);
+        ids.put(key, id);
+
+        if (id == acceptMask.length) {
+            acceptMask = Arrays.copyOf(acceptMask, id * 2);
+            int oldLength = table.length;
+            table = Arrays.copyOf(table, oldLength * 2);
+            Arrays.fill(table, oldLength, table.length, UNKNOWN);
+        }
+        if (id == 0) {
+            Arrays.fill(table, UNKNOWN);
+        }
+        acceptMask[id] = mask(states);
+        return id;
+    }
+
+    private long mask(int[] states) {
+        long mask = 0;
+        for (int a = 0; a < automata.length; a++) {
+            if (automata[a].isAccepting(states[a])) {
+                mask |= 1L << a;
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,268 @@
+package org.example.Lab1;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reports non-empty occurrences of the language inside a larger text, leftmost-longest and
+ * non-overlapping (like {@code grep -o}), in linear time. A backward pass runs the reverse subset automaton
+ * over the text: its state at position i is the set of DFA states from which some continuation of the text
+ * after i is accepted. The forward pass then tests every start position once and extends a match only while
+ * a longer one is still possible, so it never scans past the end of a match and never restarts.
+ * Only one reverse state per block is kept; a block's states are recomputed when the forward pass reaches it.
+ * Files are memory-mapped in windows of up to 1 GB, so texts larger than 2 GB are scanned without copying;
+ * bytes are read as ISO-8859-1.
+ */
+public class SubstringSearcher {
+
+    @FunctionalInterface
+    public interface MatchCallback {
+        void onMatch(long start, long end);
+    }
+
+    private interface Text {
+        long length();
+
+        char charAt(long position);
+    }
+
+    private static final int WINDOW_SHIFT = 30;
+    private static final long WINDOW_MASK = (1L << WINDOW_SHIFT) - 1;
+    private static final int BLOCK_SHIFT = 16;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int UNKNOWN = -1;
+
+    private final CompiledAutomaton automaton;
+    // predecessors[symbol] lists, per target state, the states with a transition to it on that symbol (CSR)
+    private final int[][] predecessorOffsets;
+    private final int[][] predecessors;
+
+    public SubstringSearcher(FiniteAutomaton automaton) {
+        this.automaton = automaton.compiled();
+        int states = this.automaton.stateCount();
+        int symbols = this.automaton.symbolCount();
+        predecessorOffsets = new int[symbols][states + 1];
+        predecessors = new int[symbols][];
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            int[] offsets = predecessorOffsets[symbol];
+            for (int s = 0; s < states; s++) {
+                int t = this.automaton.next(s, symbol);
+                if (t != CompiledAutomaton.DEAD) {
+                    offsets[t + 1]++;
+                }
+            }
+            for (int t = 0; t < states; t++) {
+                offsets[t + 1] += offsets[t];
+            }
+            int[] list = new int[offsets[states]];
+            int[] fill = Arrays.copyOf(offsets, states);
+            for (int s = 0; s < states; s++) {
+                int t = this.automaton.next(s, symbol);
+                if (t != CompiledAutomaton.DEAD) {
+                    list[fill[t]++] = s;
+                }
+            }
+            predecessors[symbol] = list;
+        }
+    }
+
+    public void findAll(CharSequence text, MatchCallback callback) {
+        search(new Text() {
+            @Override
+            public long length() {
+                return text.length();
+            }
+
+            @Override
+            public char charAt(long position) {
+                return text.charAt((int) position);
+            }
+        }, callback);
+    }
+
+    public void findAll(Path path, MatchCallback callback) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((size + WINDOW_MASK) >>> WINDOW_SHIFT)];
+            for (int w = 0; w < windows.length; w++) {
+                long offset = (long) w << WINDOW_SHIFT;
+                windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(size - offset, 1L << WINDOW_SHIFT));
+            }
+            search(new Text() {
+                @Override
+                public long length() {
+                    return size;
+                }
+
+                @Override
+                public char charAt(long position) {
+                    return (char) (windows[(int) (position >>> WINDOW_SHIFT)].get((int) (position & WINDOW_MASK)) & 0xFF);
+                }
+            }, callback);
+        }
+    }
+
+    private void search(Text text, MatchCallback callback) {
+        Live live = new Live(text);
+        long n = text.length();
+        int start = automaton.startState();
+        long position = 0;
+        while (position < n) {
+            int first = automaton.step(start, text.charAt(position));
+            if (first == CompiledAutomaton.DEAD || !live.contains(position + 1, first)) {
+                position++;
+                continue;
+            }
+
+            // A match starts here; follow it while a longer one is still possible
+            int state = first;
+            long i = position + 1;
+            long lastEnd = -1;
+            while (true) {
+                if (automaton.isAccepting(state)) {
+                    lastEnd = i;
+                }
+                if (i == n) break;
+                int next = automaton.step(state, text.charAt(i));
+                if (next == CompiledAutomaton.DEAD || !live.contains(i + 1, next)) break;
+                state = next;
+                i++;
+            }
+            callback.onMatch(position, lastEnd);
+            position = lastEnd;
+        }
+    }
+
+    /**
+     * Per-position sets of states from which an accepting state can still be reached on the rest of the text,
+     * as states of the lazily built reverse subset automaton.
+     */
+    private class Live {
+        private final Text text;
+        private final int width = automaton.symbolCount();
+        private final List<long[]> sets = new ArrayList<>();
+        private final Map<Key, Integer> ids = new HashMap<>();
+        private int[] table = new int[0];
+        private final int accepting;
+
+        // checkpoints[b] is the reverse state at position b * BLOCK_SIZE
+        private final int[] checkpoints;
+        private int[] block = new int[BLOCK_SIZE + 1];
+        private long blockStart = -1;
+
+        Live(Text text) {
+            this.text = text;
+            int words = (automaton.stateCount() + 63) >>> 6;
+            long[] set = new long[words];
+            for (int s = 0; s < automaton.stateCount(); s++) {
+                if (automaton.isAccepting(s)) {
+                    set[s >>> 6] |= 1L << s;
+                }
+            }
+            accepting = intern(set);
+
+            long n = text.length();
+            checkpoints = new int[(int) ((n + BLOCK_SIZE - 1) >>> BLOCK_SHIFT) + 1];
+            checkpoints[checkpoints.length - 1] = accepting;
+            int id = accepting;
+            for (long i = n - 1; i >= 0; i--) {
+                id = step(id, text.charAt(i));
+                if ((i & (BLOCK_SIZE - 1)) == 0) {
+                    checkpoints[(int) (i >>> BLOCK_SHIFT)] = id;
+                }
+            }
+        }
+
+        boolean contains(long position, int state) {
+            long[] set = sets.get(at(position));
+            return (set[state >>> 6] & 1L << state) != 0;
+        }
+
+        private int at(long position) {
+            long n = text.length();
+            if (position == n) {
+                return accepting;
+            }
+            long start = position & ~(long) (BLOCK_SIZE - 1);
+            if (start != blockStart) {
+                int b = (int) (start >>> BLOCK_SHIFT);
+                long end = Math.min(start + BLOCK_SIZE, n);
+                int length = (int) (end - start);
+                block[length] = end == n ? accepting : checkpoints[b + 1];
+                for (int k = length - 1; k >= 0; k--) {
+                    block[k] = step(block[k + 1], text.charAt(start + k));
+                }
+                blockStart = start;
+            }
+            return block[(int) (position - start)];
+        }
+
+        // The set for position i from the set for position i + 1 and the character at i
+        private int step(int id, char c) {
+            int symbol = automaton.symbolOf(c);
+            if (symbol == CompiledAutomaton.DEAD) {
+                return accepting;
+            }
+            int cell = id * width + symbol;
+            if (table[cell] != UNKNOWN) {
+                return table[cell];
+            }
+            long[] current = sets.get(id);
+            long[] previous = sets.get(accepting).clone();
+            int[] offsets = predecessorOffsets[symbol];
+            int[] list = predecessors[symbol];
+            for (int w = 0; w < current.length; w++) {
+                for (long bits = current[w]; bits != 0; bits &= bits - 1) {
+                    int t = (w << 6) | Long.numberOfTrailingZeros(bits);
+                    for (int k = offsets[t]; k < offsets[t + 1]; k++) {
+                        previous[list[k] >>> 6] |= 1L << list[k];
+                    }
+                }
+            }
+            int result = intern(previous);
+            table[cell] = result;
+            return result;
+        }
+
+        private int intern(long[] set) {
+            Key key = new Key(set);
+            Integer existing = ids.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            int id = sets.size();
+            sets.add(set);
+            ids.put(key, id);
+            if ((id + 1) * width > table.length) {
+                int old = table.length;
+                table = Arrays.copyOf(table, Math.max(16 * width, table.length * 2));
+                Arrays.fill(table, old, table.length, UNKNOWN);
+            }
+            return id;
+        }
+    }
+
+    private static class Key {
+        final long[] bits;
+        final int hash;
+
+        Key(long[] bits) {
+            this.bits = bits;
+            this.hash = Arrays.hashCode(bits);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(bits, ((Key) o).bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.Lab1;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * Counts, ranks and unranks the accepted words of an exact length directly on the transition table,
+ * without enumerating them. Words of one length are ordered lexicographically by character value.
+ */
+public class WordCounter {
+
+    private final CompiledAutomaton automaton;
+
+    public WordCounter(FiniteAutomaton automaton) {
+        this.automaton = automaton.compiled();
+    }
+
+    public static WordCounter of(Grammar grammar) {
+        return new WordCounter(FiniteAutomaton.of(grammar));
+    }
+
+    // Number of accepted words of length n; picks step-by-step DP or matrix exponentiation, whichever is cheaper
+    public BigInteger count(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Length must be non-negative: " + n);
+        }
+        long states = automaton.stateCount();
+        long dpCost = (long) n * states * automaton.symbolCount();
+        long matrixCost = 2L * states * states * states * (64 - Long.numberOfLeadingZeros(n));
+        return dpCost <= matrixCost ? countByDP(n) : countByMatrix(n);
+    }
+
+    private BigInteger countByDP(int n) {
+        int states = automaton.stateCount();
+        BigInteger[] current = zeros(states);
+        current[automaton.startState()] = BigInteger.ONE;
+
+        for (int step = 0; step < n; step++) {
+            BigInteger[] next = zeros(states);
+            for (int s = 0; s < states; s++) {
+                if (current[s].signum() == 0) continue;
+                for (int symbol = 0; symbol < automaton.symbolCount(); symbol++) {
+                    int t = automaton.next(s, symbol);
+                    if (t != CompiledAutomaton.DEAD) {
+                        next[t] = next[t].add(current[s]);
+                    }
+                }
+            }
+            current = next;
+        }
+        return acceptedSum(current);
+    }
+
+    private BigInteger countByMatrix(int n) {
+        int states = automaton.stateCount();
+        BigInteger[][] power = new BigInteger[states][];
+        for (int s = 0; s < states; s++) {
+            power[s] = zeros(states);
+            for (int symbol = 0; symbol < automaton.symbolCount(); symbol++) {
+                int t = automaton.next(s, symbol);
+                if (t != CompiledAutomaton.DEAD) {
+                    power[s][t] = power[s][t].add(BigInteger.ONE);
+                }
+            }
+        }
+
+        BigInteger[] vector = zeros(states);
+        vector[automaton.startState()] = BigInteger.ONE;
+        for (int bits = n; bits > 0; bits >>>= 1) {
+            if ((bits & 1) != 0) {
+                vector = multiply(vector, power);
+            }
+            if (bits > 1) {
+                power = multiply(power, power);
+            }
+        }
+        return acceptedSum(vector);
+    }
+
+    // The k-th (0-based) accepted word of length n
+    public String unrank(int n, BigInteger k) {
+        BigInteger[][] completions = completions(n);
+        int state = automaton.startState();
+        if (k.signum() < 0 || k.compareTo(completions[n][state]) >= 0) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of range for length " + n);
+        }
+
+        StringBuilder word = new StringBuilder(n);
+        for (int remaining = n; remaining > 0; remaining--) {
+            for (int symbol = 0; symbol < automaton.symbolCount(); symbol++) {
+                int t = automaton.next(state, symbol);
+                if (t == CompiledAutomaton.DEAD) continue;
+                BigInteger below = completions[remaining - 1][t];
+                if (k.compareTo(below) < 0) {
+                    word.append(automaton.symbolChar(symbol));
+                    state = t;
+                    break;
+                }
+                k = k.subtract(below);
+            }
+        }
+        return word.toString();
+    }
+
+    // Position of word among the accepted words of its length
+    public BigInteger rank(CharSequence word) {
+        if (!automaton.isAccepted(word)) {
+            throw new IllegalArgumentException("Word is not accepted: " + word);
+        }
+        int n = word.length();
+        BigInteger[][] completions = completions(n);
+        BigInteger rank = BigInteger.ZERO;
+        int state = automaton.startState();
+
+        for (int i = 0; i < n; i++) {
+            int chosen = automaton.symbolOf(word.charAt(i));
+            for (int symbol = 0; symbol < chosen; symbol++) {
+                int t = automaton.next(state, symbol);
+                if (t != CompiledAutomaton.DEAD) {
+                    rank = rank.add(completions[n - i - 1][t]);
+                }
+            }
+            state = automaton.next(state, chosen);
+        }
+        return rank;
+    }
+
+    // completions[len][s] = number of words of length len that lead from s to an accepting state
+    private BigInteger[][] completions(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Length must be non-negative: " + n);
+        }
+        int states = automaton.stateCount();
+        BigInteger[][] completions = new BigInteger[n + 1][];
+        completions[0] = zeros(states);
+        for (int s = 0; s < states; s++) {
+            if (automaton.isAccepting(s)) {
+                completions[0][s] = BigInteger.ONE;
+            }
+        }
+        for (int len = 1; len <= n; len++) {
+            completions[len] = zeros(states);
+            for (int s = 0; s < states; s++) {
+                BigInteger sum = BigInteger.ZERO;
+                for (int symbol = 0; symbol < automaton.symbolCount(); symbol++) {
+                    int t = automaton.next(s, symbol);
+                    if (t != CompiledAutomaton.DEAD) {
+                        sum = sum.add(completions[len - 1][t]);
+                    }
+                }
+                completions[len][s] = sum;
+            }
+        }
+        return completions;
+    }
+
+    private BigInteger acceptedSum(BigInteger[] vector) {
+        BigInteger total = BigInteger.ZERO;
+        for (int s = 0; s < vector.length; s++) {
+            if (automaton.isAccepting(s)) {
+                total = total.add(vector[s]);
+            }
+        }
+        return total;
+    }
+
+    private static BigInteger[] multiply(BigInteger[] vector, BigInteger[][] matrix) {
+        BigInteger[] result = zeros(vector.length);
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i].signum() == 0) continue;
+            for (int j = 0; j < vector.length; j++) {
+                if (matrix[i][j].signum() != 0) {
+                    result[j] = result[j].add(vector[i].multiply(matrix[i][j]));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static BigInteger[][] multiply(BigInteger[][] a, BigInteger[][] b) {
+        BigInteger[][] result = new BigInteger[a.length][];
+        for (int i = 0; i < a.length; i++) {
+            result[i] = multiply(a[i], b);
+        }
+        return result;
+    }
+
+    private static BigInteger[] zeros(int size) {
+        BigInteger[] vector = new BigInteger[size];
+        Arrays.fill(vector, BigInteger.ZERO);
+        return vector;
+    }
+}
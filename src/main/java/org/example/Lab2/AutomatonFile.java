@@ -0,0 +1,320 @@
+package org.example.Lab2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Versioned binary format for compiled automata, little-endian, every section 8-byte aligned:
+ * <pre>
+ * header    magic "LFA2", version, kind (0 = DFA, 1 = NFA), stateCount, classCount, charCount, start,
+ *           edgeCount, epsilonEdgeCount, nameBytes (-1 = no names)            10 x int32, padded to 48 bytes
+ * chars     charCount x uint16, sorted
+ * classes   charCount x uint8 (uint16 if classCount > 256), class of each char
+ * accepting ceil(stateCount / 64) x int64 bitset
+ * DFA:      table      stateCount * classCount x int32, -1 = no transition
+ * NFA:      offsets    stateCount * classCount + 1 x int32, targets edgeCount x int32,
+ *           epsOffsets stateCount + 1 x int32,             epsTargets epsilonEdgeCount x int32
+ * names     stateCount + 1 x int32 offsets, then nameBytes of UTF-8
+ * </pre>
+ * DFAs are served straight from the mapping by {@link MappedDFA}; the page cache backing the mapping is
+ * shared by every process that maps the same file.
+ */
+final class AutomatonFile {
+    static final int MAGIC = 0x3241464C; // "LFA2" read little-endian
+    static final int VERSION = 1;
+    static final int KIND_DFA = 0;
+    static final int KIND_NFA = 1;
+    static final int HEADER_SIZE = 48;
+
+    // Parsed header plus the position of every section
+    static final class Layout {
+        final int kind;
+        final int stateCount;
+        final int classCount;
+        final int charCount;
+        final int start;
+        final int edgeCount;
+        final int epsilonEdgeCount;
+        final int nameBytes;
+        final int classWidth;
+        final long chars;
+        final long classes;
+        final long accepting;
+        final long table;
+        final long targets;
+        final long epsOffsets;
+        final long epsTargets;
+        final long names;
+        final long size;
+
+        Layout(int kind, int stateCount, int classCount, int charCount, int start,
+               int edgeCount, int epsilonEdgeCount, int nameBytes) {
+            this.kind = kind;
+            this.stateCount = stateCount;
+            this.classCount = classCount;
+            this.charCount = charCount;
+            this.start = start;
+            this.edgeCount = edgeCount;
+            this.epsilonEdgeCount = epsilonEdgeCount;
+            this.nameBytes = nameBytes;
+            this.classWidth = classCount > 256 ? 2 : 1;
+
+            long position = HEADER_SIZE;
+            chars = position;
+            position = align(position + 2L * charCount);
+            classes = position;
+            position = align(position + (long) classWidth * charCount);
+            accepting = position;
+            position += 8L * IndexedNFA.words(stateCount);
+            table = position;
+            if (kind == KIND_DFA) {
+                position += 4L * stateCount * classCount;
+                targets = epsOffsets = epsTargets = position;
+            } else {
+                position = align(position + 4L * ((long) stateCount * classCount + 1));
+                targets = position;
+                position = align(position + 4L * edgeCount);
+                epsOffsets = position;
+                position = align(position + 4L * (stateCount + 1));
+                epsTargets = position;
+                position = align(position + 4L * epsilonEdgeCount);
+            }
+            names = position;
+            if (nameBytes >= 0) {
+                position += 4L * (stateCount + 1) + nameBytes;
+            }
+            size = align(position);
+        }
+
+        private static long align(long position) {
+            return (position + 7) & ~7L;
+        }
+    }
+
+    private AutomatonFile() {
+    }
+
+    static void write(CompactDFA dfa, Path path) throws IOException {
+        Layout layout = new Layout(KIND_DFA, dfa.stateCount, dfa.symbolCount(), dfa.classes.chars.length, 0,
+                0, 0, -1);
+        ByteBuffer buffer = allocate(layout);
+        writeCommon(buffer, layout, dfa.classes, acceptingBits(dfa.accepting));
+        buffer.position((int) layout.table);
+        buffer.asIntBuffer().put(dfa.table);
+        writeFile(buffer, path);
+    }
+
+    // DFA whose table rows were already streamed, in order, to a rows file
+    static void write(Path path, SymbolClasses classes, int stateCount, long[] accepting, FileChannel rows)
+            throws IOException {
+        Layout layout = new Layout(KIND_DFA, stateCount, classes.classCount, classes.chars.length, 0, 0, 0, -1);
+        ByteBuffer head = ByteBuffer.allocate((int) layout.table).order(ByteOrder.LITTLE_ENDIAN);
+        writeCommon(head, layout, classes, accepting);
+        head.clear();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (head.hasRemaining()) {
+                channel.write(head);
+            }
+            long length = 4L * stateCount * classes.classCount;
+            for (long done = 0; done < length; ) {
+                done += rows.transferTo(done, length - done, channel);
+            }
+            ByteBuffer padding = ByteBuffer.allocate((int) (layout.size - layout.table - length));
+            while (padding.hasRemaining()) {
+                channel.write(padding);
+            }
+        }
+    }
+
+    static void write(FiniteAutomaton fa, Path path) throws IOException {
+        IndexedNFA nfa = IndexedNFA.of(fa);
+        byte[][] names = new byte[nfa.stateCount][];
+        int nameBytes = 0;
+        for (int q = 0; q < names.length; q++) {
+            names[q] = nfa.stateNames[q].getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[q].length;
+        }
+
+        Layout layout = new Layout(KIND_NFA, nfa.stateCount, nfa.symbolCount(), nfa.classes.chars.length, nfa.start,
+                nfa.targets.length, nfa.epsTargets.length, nameBytes);
+        ByteBuffer buffer = allocate(layout);
+        writeCommon(buffer, layout, nfa.classes, nfa.accepting);
+        buffer.position((int) layout.table);
+        buffer.asIntBuffer().put(nfa.offsets);
+        buffer.position((int) layout.targets);
+        buffer.asIntBuffer().put(nfa.targets);
+        buffer.position((int) layout.epsOffsets);
+        buffer.asIntBuffer().put(nfa.epsOffsets);
+        buffer.position((int) layout.epsTargets);
+        buffer.asIntBuffer().put(nfa.epsTargets);
+
+        buffer.position((int) layout.names);
+        int offset = 0;
+        for (byte[] name : names) {
+            buffer.putInt(offset);
+            offset += name.length;
+        }
+        buffer.putInt(offset);
+        for (byte[] name : names) {
+            buffer.put(name);
+        }
+        writeFile(buffer, path);
+    }
+
+    // Maps a DFA file in segments; nothing is copied except the (small) symbol class map
+    static MappedDFA mapDFA(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Not an automaton file: " + path);
+            }
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + MappedDFA.SEGMENT_SIZE - 1)
+                    >>> MappedDFA.SEGMENT_SHIFT)];
+            for (int s = 0; s < segments.length; s++) {
+                long start = s * MappedDFA.SEGMENT_SIZE;
+                segments[s] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(MappedDFA.SEGMENT_SIZE, size - start));
+                segments[s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+            Layout layout = readLayout(segments[0], size);
+            if (layout.kind != KIND_DFA) {
+                throw new IOException("Not a DFA file: " + path);
+            }
+            if (layout.accepting > segments[0].capacity()) {
+                throw new IOException("Corrupt automaton file: " + path);
+            }
+            return new MappedDFA(segments, layout, readClasses(segments[0], layout));
+        }
+    }
+
+    // Loads an NFA file; the int sections are bulk-copied out of the mapping
+    static FiniteAutomaton readNFA(Path path) throws IOException {
+        MappedByteBuffer buffer = map(path);
+        Layout layout = readLayout(buffer, buffer.capacity());
+        if (layout.kind != KIND_NFA) {
+            throw new IOException("Not an NFA file: " + path);
+        }
+        int n = layout.stateCount;
+        long[] accepting = new long[IndexedNFA.words(n)];
+        buffer.position((int) layout.accepting);
+        buffer.asLongBuffer().get(accepting);
+        int[] offsets = ints(buffer, layout.table, n * layout.classCount + 1);
+        int[] targets = ints(buffer, layout.targets, layout.edgeCount);
+        int[] epsOffsets = ints(buffer, layout.epsOffsets, n + 1);
+        int[] epsTargets = ints(buffer, layout.epsTargets, layout.epsilonEdgeCount);
+
+        int[] nameOffsets = ints(buffer, layout.names, n + 1);
+        byte[] nameData = new byte[layout.nameBytes];
+        buffer.position((int) layout.names + 4 * (n + 1));
+        buffer.get(nameData);
+        String[] names = new String[n];
+        for (int q = 0; q < n; q++) {
+            names[q] = new String(nameData, nameOffsets[q], nameOffsets[q + 1] - nameOffsets[q], StandardCharsets.UTF_8);
+        }
+        return new FiniteAutomaton(new IndexedNFA(names, readClasses(buffer, layout), layout.start, accepting,
+                offsets, targets, epsOffsets, epsTargets));
+    }
+
+    private static ByteBuffer allocate(Layout layout) {
+        if (layout.size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Automaton too large for one file: " + layout.size + " bytes");
+        }
+        return ByteBuffer.allocate((int) layout.size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void writeCommon(ByteBuffer buffer, Layout layout, SymbolClasses classes, long[] accepting) {
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(layout.kind).putInt(layout.stateCount).putInt(layout.classCount)
+                .putInt(layout.charCount).putInt(layout.start).putInt(layout.edgeCount)
+                .putInt(layout.epsilonEdgeCount).putInt(layout.nameBytes);
+        buffer.position((int) layout.chars);
+        for (char c : classes.chars) {
+            buffer.putChar(c);
+        }
+        buffer.position((int) layout.classes);
+        for (int cls : classes.classOfChar) {
+            if (layout.classWidth == 1) {
+                buffer.put((byte) cls);
+            } else {
+                buffer.putChar((char) cls);
+            }
+        }
+        buffer.position((int) layout.accepting);
+        buffer.asLongBuffer().put(accepting);
+    }
+
+    private static long[] acceptingBits(boolean[] accepting) {
+        long[] bits = new long[IndexedNFA.words(accepting.length)];
+        for (int q = 0; q < accepting.length; q++) {
+            if (accepting[q]) {
+                IndexedNFA.set(bits, q);
+            }
+        }
+        return bits;
+    }
+
+    private static void writeFile(ByteBuffer buffer, Path path) throws IOException {
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not an automaton file: " + path);
+            }
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("NFA file too large to load: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    private static Layout readLayout(ByteBuffer buffer, long fileSize) throws IOException {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an automaton file (bad magic)");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported automaton file version: " + version);
+        }
+        Layout layout = new Layout(buffer.getInt(8), buffer.getInt(12), buffer.getInt(16), buffer.getInt(20),
+                buffer.getInt(24), buffer.getInt(28), buffer.getInt(32), buffer.getInt(36));
+        if (layout.size > fileSize) {
+            throw new IOException("Truncated automaton file");
+        }
+        return layout;
+    }
+
+    private static SymbolClasses readClasses(ByteBuffer buffer, Layout layout) {
+        char[] chars = new char[layout.charCount];
+        int[] classOfChar = new int[layout.charCount];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar((int) layout.chars + 2 * i);
+            classOfChar[i] = layout.classWidth == 1
+                    ? buffer.get((int) layout.classes + i) & 0xFF
+                    : buffer.getChar((int) layout.classes + 2 * i);
+        }
+        return new SymbolClasses(chars, classOfChar, layout.classCount);
+    }
+
+    private static int[] ints(ByteBuffer buffer, long position, int count) {
+        int[] values = new int[count];
+        buffer.position((int) position);
+        buffer.asIntBuffer().get(values);
+        return values;
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.Lab2;
+
+import java.util.Arrays;
+
+/**
+ * Direct NFA membership test without determinizing. The current state set is a bit vector and each step
+ * ORs precomputed successor masks (epsilon-closures already folded in). With at most 64 states the vector
+ * is a single {@code long} and the masks are tabulated per byte of the vector, so a step is at most
+ * eight table lookups. Larger automata use a {@code long[]} vector and per-state masks.
+ */
+final class BitParallelNFA {
+    static final int MAX_SMALL_STATES = 64;
+    // Above this many precomputed mask words, large automata step through IndexedNFA.move instead
+    private static final long MAX_MASK_WORDS = 1L << 24;
+
+    private final IndexedNFA nfa;
+    private final int symbols;
+    private final int words;
+    private final long[] start;
+
+    // Small engine: byteTable[((symbol * chunks) + chunk) * 256 + byteValue]
+    private final int chunks;
+    private final long[] byteTable;
+
+    // Large engine: masks[(symbol * stateCount + state) * words ..]
+    private final long[] masks;
+
+    BitParallelNFA(IndexedNFA nfa) {
+        this.nfa = nfa;
+        this.symbols = nfa.symbolCount();
+        this.words = nfa.words();
+        this.start = new long[words];
+        nfa.closure(nfa.start, start);
+
+        int n = nfa.stateCount;
+        if (n <= MAX_SMALL_STATES) {
+            chunks = (n + 7) >>> 3;
+            byteTable = new long[symbols * chunks * 256];
+            long[] row = new long[1];
+            long[] single = new long[1];
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    int base = (symbol * chunks + chunk) * 256;
+                    for (int value = 1; value < 256; value++) {
+                        int state = (chunk << 3) + Integer.numberOfTrailingZeros(value);
+                        long successors = 0;
+                        if (state < n) {
+                            row[0] = 0;
+                            single[0] = 1L << state;
+                            nfa.move(single, symbol, row);
+                            successors = row[0];
+                        }
+                        byteTable[base + value] = byteTable[base + (value & (value - 1))] | successors;
+                    }
+                }
+            }
+            masks = null;
+        } else {
+            chunks = 0;
+            byteTable = null;
+            if ((long) symbols * n * words <= MAX_MASK_WORDS) {
+                masks = new long[symbols * n * words];
+                long[] single = new long[words];
+                long[] row = new long[words];
+                for (int symbol = 0; symbol < symbols; symbol++) {
+                    for (int state = 0; state < n; state++) {
+                        Arrays.fill(single, 0);
+                        Arrays.fill(row, 0);
+                        IndexedNFA.set(single, state);
+                        nfa.move(single, symbol, row);
+                        System.arraycopy(row, 0, masks, (symbol * n + state) * words, words);
+                    }
+                }
+            } else {
+                masks = null;
+            }
+        }
+    }
+
+    boolean accepts(CharSequence input) {
+        return byteTable != null ? acceptsSmall(input) : acceptsLarge(input);
+    }
+
+    private boolean acceptsSmall(CharSequence input) {
+        long current = start[0];
+        for (int i = 0, n = input.length(); i < n; i++) {
+            int symbol = nfa.classes.classOf(input.charAt(i));
+            if (symbol < 0) {
+                return false;
+            }
+            int base = symbol * chunks * 256;
+            long next = 0;
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                next |= byteTable[base + (chunk << 8) + (int) ((current >>> (chunk << 3)) & 0xFF)];
+            }
+            if (next == 0) {
+                return false;
+            }
+            current = next;
+        }
+        return (current & nfa.accepting[0]) != 0;
+    }
+
+    private boolean acceptsLarge(CharSequence input) {
+        int n = nfa.stateCount;
+        long[] current = start.clone();
+        long[] next = new long[words];
+        for (int i = 0, length = input.length(); i < length; i++) {
+            int symbol = nfa.classes.classOf(input.charAt(i));
+            if (symbol < 0) {
+                return false;
+            }
+            Arrays.fill(next, 0);
+            if (masks == null) {
+                nfa.move(current, symbol, next);
+            } else {
+                for (int w = 0; w < words; w++) {
+                    for (long bits = current[w]; bits != 0; bits &= bits - 1) {
+                        int base = (symbol * n + (w << 6) + Long.numberOfTrailingZeros(bits)) * words;
+                        for (int x = 0; x < words; x++) {
+                            next[x] |= masks[base + x];
+                        }
+                    }
+                }
+            }
+            if (IndexedNFA.isEmpty(next)) {
+                return false;
+            }
+            long[] swap = current;
+            current = next;
+            next = swap;
+        }
+        return IndexedNFA.intersects(current, nfa.accepting);
+    }
+}
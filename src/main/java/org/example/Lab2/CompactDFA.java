@@ -0,0 +1,85 @@
+package org.example.Lab2;
+
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * Deterministic automaton over int states: state 0 is the start state, {@code table[state * symbolCount + symbol]}
+ * is the next state or {@link #DEAD}. State names are produced only when asked for, through {@code namer}.
+ */
+final class CompactDFA {
+    static final int DEAD = -1;
+
+    final int stateCount;
+    final SymbolClasses classes;
+    final int[] table;
+    final boolean[] accepting;
+    private final IntFunction<String> namer;
+
+    CompactDFA(int stateCount, SymbolClasses classes, int[] table, boolean[] accepting, IntFunction<String> namer) {
+        this.stateCount = stateCount;
+        this.classes = classes;
+        this.table = table;
+        this.accepting = accepting;
+        this.namer = namer;
+    }
+
+    // Number of symbol classes, i.e. columns of the table
+    int symbolCount() {
+        return classes.classCount;
+    }
+
+    int next(int state, int symbol) {
+        return table[state * classes.classCount + symbol];
+    }
+
+    int symbolOf(char c) {
+        return classes.classOf(c);
+    }
+
+    String stateName(int state) {
+        return namer == null ? "q" + state : namer.apply(state);
+    }
+
+    boolean accepts(CharSequence input) {
+        int state = 0;
+        for (int i = 0; i < input.length() && state != DEAD; i++) {
+            int symbol = symbolOf(input.charAt(i));
+            state = symbol == DEAD ? DEAD : next(state, symbol);
+        }
+        return state != DEAD && accepting[state];
+    }
+
+    CompactDFA minimize() {
+        return DFAMinimizer.minimize(this);
+    }
+
+    // Adapter back to the map-based representation
+    FiniteAutomaton toFiniteAutomaton() {
+        String[] names = new String[stateCount];
+        for (int s = 0; s < stateCount; s++) {
+            names[s] = stateName(s);
+        }
+
+        Set<Character> symbols = new HashSet<>();
+        for (char c : classes.chars) {
+            symbols.add(c);
+        }
+        Map<String, Map<Character, Set<String>>> transitions = new HashMap<>();
+        Set<String> finalStates = new HashSet<>();
+        for (int s = 0; s < stateCount; s++) {
+            Map<Character, Set<String>> row = new HashMap<>();
+            for (int i = 0; i < classes.chars.length; i++) {
+                int t = next(s, classes.classOfChar[i]);
+                if (t != DEAD) {
+                    row.put(classes.chars[i], new HashSet<>(Collections.singleton(names[t])));
+                }
+            }
+            transitions.put(names[s], row);
+            if (accepting[s]) {
+                finalStates.add(names[s]);
+            }
+        }
+        return new FiniteAutomaton(new HashSet<>(Arrays.asList(names)), symbols, transitions, names[0], finalStates);
+    }
+}
@@ -1,76 +1,62 @@
 package org.example.Lab2;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 class DFAConverter {
 
     public static FiniteAutomaton convertNDFAtoDFA(FiniteAutomaton ndfa) {
-        Set<Set<String>> dfaStates = new HashSet<>();
-        Map<Set<String>, String> stateNames = new HashMap<>();
-        Map<String, Map<Character, String>> dfaTransitions = new HashMap<>();
-        Queue<Set<String>> queue = new LinkedList<>();
-
-        Set<String> startSet = epsilonClosure(new HashSet<>(Collections.singleton(ndfa.startState)), ndfa);
-        queue.add(startSet);
-        dfaStates.add(startSet);
-        stateNames.put(startSet, formatStateName(startSet));
-
-        while (!queue.isEmpty()) {
-            Set<String> currentSet = queue.poll();
-            String currentStateName = stateNames.get(currentSet);
-            dfaTransitions.put(currentStateName, new HashMap<>());
-
-            for (char symbol : ndfa.alphabet) {
-                Set<String> newStateSet = new HashSet<>();
-                for (String state : currentSet) {
-                    if (ndfa.transitions.containsKey(state) && ndfa.transitions.get(state).containsKey(symbol)) {
-                        newStateSet.addAll(ndfa.transitions.get(state).get(symbol));
-                    }
-                }
-                newStateSet = epsilonClosure(newStateSet, ndfa);
-                if (!newStateSet.isEmpty()) {
-                    if (!stateNames.containsKey(newStateSet)) {
-                        queue.add(newStateSet);
-                        dfaStates.add(newStateSet);
-                        stateNames.put(newStateSet, formatStateName(newStateSet));
-                    }
-                    dfaTransitions.get(currentStateName).put(symbol, stateNames.get(newStateSet));
-                }
-            }
-        }
-
-        Set<String> dfaFinalStates = new HashSet<>();
-        for (Set<String> stateSet : dfaStates) {
-            for (String state : stateSet) {
-                if (ndfa.finalStates.contains(state)) {
-                    dfaFinalStates.add(stateNames.get(stateSet));
-                    break;
-                }
-            }
-        }
+        return determinize(ndfa).toFiniteAutomaton();
+    }
 
-        return new FiniteAutomaton(new HashSet<>(stateNames.values()), ndfa.alphabet, convertMapFormat(dfaTransitions),
-                stateNames.get(startSet), dfaFinalStates);
+    public static CompactDFA determinize(FiniteAutomaton ndfa) {
+        return determinize(IndexedNFA.of(ndfa));
     }
 
-    private static String formatStateName(Set<String> states) {
-        List<String> sortedStates = new ArrayList<>(states);
-        Collections.sort(sortedStates);
-        return String.join("_", sortedStates);
+    // Same result as determinize, with each BFS level expanded on the given pool
+    public static CompactDFA determinizeParallel(FiniteAutomaton ndfa, ForkJoinPool pool) {
+        return ParallelDeterminizer.determinize(IndexedNFA.of(ndfa), pool);
     }
 
-    private static Set<String> epsilonClosure(Set<String> states, FiniteAutomaton ndfa) {
-        return states;
+    // Disk-backed construction for DFAs that outgrow the heap; the result is written to output and mapped
+    public static MappedDFA determinizeToFile(FiniteAutomaton ndfa, Path workDir, Path output, long heapBudgetBytes)
+            throws IOException {
+        return ExternalDeterminizer.determinize(IndexedNFA.of(ndfa), workDir, output, heapBudgetBytes);
     }
 
-    private static Map<String, Map<Character, Set<String>>> convertMapFormat(Map<String, Map<Character, String>> input) {
-        Map<String, Map<Character, Set<String>>> output = new HashMap<>();
-        for (Map.Entry<String, Map<Character, String>> entry : input.entrySet()) {
-            output.put(entry.getKey(), new HashMap<>());
-            for (Map.Entry<Character, String> innerEntry : entry.getValue().entrySet()) {
-                output.get(entry.getKey()).put(innerEntry.getKey(), new HashSet<>(Collections.singleton(innerEntry.getValue())));
+    // Subset construction over int states, starting from the epsilon-closure of the start state; each DFA state is a long[] bitset interned in a SubsetTable.
+    // DFA ids follow BFS discovery order, names are built from the subsets only when requested.
+    static CompactDFA determinize(IndexedNFA nfa) {
+        int symbols = nfa.symbolCount();
+        SubsetTable subsets = new SubsetTable(nfa.words());
+        long[] current = new long[nfa.words()];
+        long[] next = new long[nfa.words()];
+
+        nfa.closure(nfa.start, current);
+        subsets.add(current);
+        int[] table = new int[16 * Math.max(1, symbols)];
+
+        for (int id = 0; id < subsets.size(); id++) {
+            subsets.get(id, current);
+            if ((id + 1) * symbols > table.length) {
+                table = Arrays.copyOf(table, Math.max(table.length * 2, (id + 1) * symbols));
             }
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                Arrays.fill(next, 0);
+                nfa.move(current, symbol, next);
+                table[id * symbols + symbol] = IndexedNFA.isEmpty(next) ? CompactDFA.DEAD : subsets.add(next);
+            }
+        }
+
+        int stateCount = subsets.size();
+        boolean[] accepting = new boolean[stateCount];
+        for (int id = 0; id < stateCount; id++) {
+            subsets.get(id, current);
+            accepting[id] = IndexedNFA.intersects(current, nfa.accepting);
         }
-        return output;
+        return new CompactDFA(stateCount, nfa.classes, Arrays.copyOf(table, stateCount * symbols), accepting,
+                id -> nfa.nameOf(subsets.get(id)));
     }
 }
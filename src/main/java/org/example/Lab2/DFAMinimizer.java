@@ -0,0 +1,211 @@
+package org.example.Lab2;
+
+import java.util.Arrays;
+
+/**
+ * Hopcroft's partition refinement over a {@link CompactDFA}, in O(n·k·log n), using only primitive arrays.
+ * Missing transitions go to an implicit sink state, which is dropped again from the result.
+ */
+final class DFAMinimizer {
+
+    private final int n;
+    private final int k;
+    private final int[] invOffset;
+    private final int[] invSource;
+
+    // Refinable partition: elements grouped by block, block b spans elements[first[b]..end[b])
+    private final int[] elements;
+    private final int[] location;
+    private final int[] blockOf;
+    private final int[] first;
+    private final int[] end;
+    private final int[] marked;
+    private int blocks;
+
+    private final int[] touched;
+    private int touchedCount;
+    private final boolean[] pending;
+    private int[] worklist;
+    private int worklistSize;
+
+    private DFAMinimizer(CompactDFA dfa) {
+        n = dfa.stateCount + 1;
+        k = dfa.symbolCount();
+        int sink = n - 1;
+
+        // Inverse transitions per symbol as CSR: sources of (symbol, target) are invSource[invOffset[..]..invOffset[..+1])
+        invOffset = new int[k * (n + 1) + 1];
+        invSource = new int[k * n];
+        for (int a = 0; a < k; a++) {
+            for (int q = 0; q < n; q++) {
+                invOffset[a * (n + 1) + target(dfa, q, a, sink) + 1]++;
+            }
+        }
+        for (int i = 1; i < invOffset.length; i++) {
+            invOffset[i] += invOffset[i - 1];
+        }
+        int[] fill = Arrays.copyOf(invOffset, invOffset.length);
+        for (int a = 0; a < k; a++) {
+            for (int q = 0; q < n; q++) {
+                invSource[fill[a * (n + 1) + target(dfa, q, a, sink)]++] = q;
+            }
+        }
+
+        elements = new int[n];
+        location = new int[n];
+        blockOf = new int[n];
+        first = new int[n];
+        end = new int[n];
+        marked = new int[n];
+        touched = new int[n];
+        pending = new boolean[n * Math.max(1, k)];
+        worklist = new int[16];
+
+        int left = 0;
+        int right = n;
+        for (int q = 0; q < n; q++) {
+            boolean accepting = q != sink && dfa.accepting[q];
+            int position = accepting ? left++ : --right;
+            elements[position] = q;
+            location[q] = position;
+        }
+        if (left > 0) {
+            addBlock(0, left);
+        }
+        if (left < n) {
+            addBlock(left, n);
+        }
+        if (blocks == 2) {
+            int smaller = end[0] - first[0] <= end[1] - first[1] ? 0 : 1;
+            for (int a = 0; a < k; a++) {
+                push(smaller, a);
+            }
+        }
+    }
+
+    private static int target(CompactDFA dfa, int q, int a, int sink) {
+        if (q == sink) return sink;
+        int t = dfa.next(q, a);
+        return t == CompactDFA.DEAD ? sink : t;
+    }
+
+    static CompactDFA minimize(CompactDFA dfa) {
+        DFAMinimizer minimizer = new DFAMinimizer(dfa);
+        minimizer.refine();
+        return minimizer.build(dfa);
+    }
+
+    private int addBlock(int from, int to) {
+        int b = blocks++;
+        first[b] = from;
+        end[b] = to;
+        for (int i = from; i < to; i++) {
+            blockOf[elements[i]] = b;
+        }
+        return b;
+    }
+
+    private void push(int block, int symbol) {
+        pending[block * k + symbol] = true;
+        if (worklistSize == worklist.length) {
+            worklist = Arrays.copyOf(worklist, worklistSize * 2);
+        }
+        worklist[worklistSize++] = block * k + symbol;
+    }
+
+    private void refine() {
+        int[] splitter = new int[n];
+        while (worklistSize > 0) {
+            int entry = worklist[--worklistSize];
+            pending[entry] = false;
+            int block = entry / k;
+            int symbol = entry % k;
+
+            // Copy the splitter first: marking may reorder its own block
+            int size = end[block] - first[block];
+            System.arraycopy(elements, first[block], splitter, 0, size);
+            int base = symbol * (n + 1);
+            for (int i = 0; i < size; i++) {
+                int q = splitter[i];
+                for (int j = invOffset[base + q]; j < invOffset[base + q + 1]; j++) {
+                    mark(invSource[j]);
+                }
+            }
+
+            for (int t = 0; t < touchedCount; t++) {
+                split(touched[t]);
+            }
+            touchedCount = 0;
+        }
+    }
+
+    private void mark(int q) {
+        int b = blockOf[q];
+        int position = location[q];
+        int boundary = first[b] + marked[b];
+        if (position < boundary) return;
+        if (marked[b] == 0) {
+            touched[touchedCount++] = b;
+        }
+        int other = elements[boundary];
+        elements[boundary] = q;
+        location[q] = boundary;
+        elements[position] = other;
+        location[other] = position;
+        marked[b]++;
+    }
+
+    private void split(int c) {
+        int m = marked[c];
+        marked[c] = 0;
+        if (m == end[c] - first[c]) return;
+
+        int d = addBlock(first[c], first[c] + m);
+        first[c] += m;
+        int sizeC = end[c] - first[c];
+        for (int a = 0; a < k; a++) {
+            if (pending[c * k + a]) {
+                push(d, a);
+            } else {
+                push(m <= sizeC ? d : c, a);
+            }
+        }
+    }
+
+    // Renumber blocks in BFS order from the start state, dropping the sink's block
+    private CompactDFA build(CompactDFA dfa) {
+        int sinkBlock = blockOf[n - 1];
+        int[] newId = new int[blocks];
+        Arrays.fill(newId, CompactDFA.DEAD);
+        int[] representative = new int[blocks];
+        int count = 0;
+
+        newId[blockOf[0]] = count;
+        representative[count++] = 0;
+        int[] table = new int[Math.max(1, blocks * k)];
+        for (int id = 0; id < count; id++) {
+            int q = representative[id];
+            for (int a = 0; a < k; a++) {
+                int t = dfa.next(q, a);
+                int tb = t == CompactDFA.DEAD ? sinkBlock : blockOf[t];
+                if (tb == sinkBlock) {
+                    table[id * k + a] = CompactDFA.DEAD;
+                    continue;
+                }
+                if (newId[tb] == CompactDFA.DEAD) {
+                    newId[tb] = count;
+                    representative[count++] = t;
+                }
+                table[id * k + a] = newId[tb];
+            }
+        }
+
+        boolean[] accepting = new boolean[count];
+        for (int id = 0; id < count; id++) {
+            accepting[id] = dfa.accepting[representative[id]];
+        }
+        int[] names = Arrays.copyOf(representative, count);
+        return new CompactDFA(count, dfa.classes, Arrays.copyOf(table, count * k), accepting,
+                id -> dfa.stateName(names[id]));
+    }
+}
@@ -0,0 +1,251 @@
+package org.example.Lab2;
+
+import java.util.*;
+
+/**
+ * Boolean operations and equivalence on {@link CompactDFA}s. Products are explored breadth-first from the
+ * pair of start states, so only the reachable part is ever built. Equivalence uses Hopcroft–Karp
+ * union-find and never builds the product table at all; it stops at the first pair that disagrees
+ * and returns a word that tells them apart. Pairs are visited breadth-first, but pairs merged by
+ * transitivity are skipped, so the word is not necessarily a shortest one.
+ */
+final class DFAOperations {
+    private static final int INTERSECTION = 0;
+    private static final int UNION = 1;
+    private static final int DIFFERENCE = 2;
+
+    private DFAOperations() {
+    }
+
+    static CompactDFA intersection(CompactDFA a, CompactDFA b) {
+        return product(a, b, INTERSECTION);
+    }
+
+    static CompactDFA union(CompactDFA a, CompactDFA b) {
+        return product(a, b, UNION);
+    }
+
+    // Words accepted by a but not by b
+    static CompactDFA difference(CompactDFA a, CompactDFA b) {
+        return product(a, b, DIFFERENCE);
+    }
+
+    // Classes of the merged alphabet: one per distinct (class in a, class in b) pair, -1 where a char is missing
+    private static SymbolClasses mergeClasses(CompactDFA a, CompactDFA b, int[] classA, int[] classB) {
+        SortedSet<Character> merged = new TreeSet<>();
+        for (char c : a.classes.chars) merged.add(c);
+        for (char c : b.classes.chars) merged.add(c);
+
+        char[] chars = new char[merged.size()];
+        int[] classOfChar = new int[chars.length];
+        Map<Integer, Integer> pairs = new HashMap<>();
+        int i = 0;
+        for (char c : merged) {
+            chars[i] = c;
+            int ca = a.classes.classOf(c);
+            int cb = b.classes.classOf(c);
+            int key = (ca + 1) * (b.symbolCount() + 1) + cb + 1;
+            Integer cls = pairs.get(key);
+            if (cls == null) {
+                cls = pairs.size();
+                pairs.put(key, cls);
+                classA[cls] = ca;
+                classB[cls] = cb;
+            }
+            classOfChar[i++] = cls;
+        }
+        return new SymbolClasses(chars, classOfChar, pairs.size());
+    }
+
+    private static int step(CompactDFA dfa, int state, int symbol) {
+        return state == CompactDFA.DEAD || symbol < 0 ? CompactDFA.DEAD : dfa.next(state, symbol);
+    }
+
+    private static CompactDFA product(CompactDFA a, CompactDFA b, int operation) {
+        int maxClasses = a.classes.chars.length + b.classes.chars.length;
+        int[] classA = new int[maxClasses];
+        int[] classB = new int[maxClasses];
+        SymbolClasses classes = mergeClasses(a, b, classA, classB);
+        int k = classes.classCount;
+
+        PairIds ids = new PairIds();
+        ids.add(0, 0);
+        int[] table = new int[16 * Math.max(1, k)];
+        for (int id = 0; id < ids.size(); id++) {
+            int p = ids.first(id);
+            int q = ids.second(id);
+            if ((id + 1) * k > table.length) {
+                table = Arrays.copyOf(table, Math.max(table.length * 2, (id + 1) * k));
+            }
+            for (int symbol = 0; symbol < k; symbol++) {
+                int np = step(a, p, classA[symbol]);
+                int nq = step(b, q, classB[symbol]);
+                boolean dead = operation == UNION
+                        ? np == CompactDFA.DEAD && nq == CompactDFA.DEAD
+                        : np == CompactDFA.DEAD || (operation == INTERSECTION && nq == CompactDFA.DEAD);
+                table[id * k + symbol] = dead ? CompactDFA.DEAD : ids.add(np, nq);
+            }
+        }
+
+        int stateCount = ids.size();
+        boolean[] accepting = new boolean[stateCount];
+        for (int id = 0; id < stateCount; id++) {
+            boolean inA = ids.first(id) != CompactDFA.DEAD && a.accepting[ids.first(id)];
+            boolean inB = ids.second(id) != CompactDFA.DEAD && b.accepting[ids.second(id)];
+            accepting[id] = operation == INTERSECTION ? inA && inB : operation == UNION ? inA || inB : inA && !inB;
+        }
+        return new CompactDFA(stateCount, classes, Arrays.copyOf(table, stateCount * k), accepting,
+                id -> "(" + name(a, ids.first(id)) + "," + name(b, ids.second(id)) + ")");
+    }
+
+    private static String name(CompactDFA dfa, int state) {
+        return state == CompactDFA.DEAD ? "∅" : dfa.stateName(state);
+    }
+
+    // A word accepted by exactly one of a and b, or null if they accept the same language
+    static String counterexample(CompactDFA a, CompactDFA b) {
+        int maxClasses = a.classes.chars.length + b.classes.chars.length;
+        int[] classA = new int[maxClasses];
+        int[] classB = new int[maxClasses];
+        SymbolClasses classes = mergeClasses(a, b, classA, classB);
+        int k = classes.classCount;
+
+        // Union-find over a's states, a's dead state, b's states, b's dead state
+        int deadA = a.stateCount;
+        int offsetB = a.stateCount + 1;
+        int deadB = offsetB + b.stateCount;
+        int[] parent = new int[deadB + 1];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+
+        // Pairs still to check, with the (pair, symbol) they were reached from for word reconstruction
+        int[] pairA = new int[16];
+        int[] pairB = new int[16];
+        int[] from = new int[16];
+        int[] via = new int[16];
+        int pairs = 0;
+        pairA[0] = 0;
+        pairB[0] = offsetB;
+        from[0] = -1;
+        pairs++;
+        union(parent, 0, offsetB);
+
+        for (int head = 0; head < pairs; head++) {
+            int p = pairA[head];
+            int q = pairB[head];
+            boolean acceptA = p != deadA && a.accepting[p];
+            boolean acceptB = q != deadB && b.accepting[q - offsetB];
+            if (acceptA != acceptB) {
+                StringBuilder word = new StringBuilder();
+                for (int at = head; from[at] >= 0; at = from[at]) {
+                    word.append(classes.representative(via[at]));
+                }
+                return word.reverse().toString();
+            }
+            for (int symbol = 0; symbol < k; symbol++) {
+                int np = step(a, p == deadA ? CompactDFA.DEAD : p, classA[symbol]);
+                int nq = step(b, q == deadB ? CompactDFA.DEAD : q - offsetB, classB[symbol]);
+                np = np == CompactDFA.DEAD ? deadA : np;
+                nq = nq == CompactDFA.DEAD ? deadB : nq + offsetB;
+                if (find(parent, np) == find(parent, nq)) continue;
+                union(parent, np, nq);
+                if (pairs == pairA.length) {
+                    pairA = Arrays.copyOf(pairA, pairs * 2);
+                    pairB = Arrays.copyOf(pairB, pairs * 2);
+                    from = Arrays.copyOf(from, pairs * 2);
+                    via = Arrays.copyOf(via, pairs * 2);
+                }
+                pairA[pairs] = np;
+                pairB[pairs] = nq;
+                from[pairs] = head;
+                via[pairs] = symbol;
+                pairs++;
+            }
+        }
+        return null;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    private static void union(int[] parent, int x, int y) {
+        parent[find(parent, x)] = find(parent, y);
+    }
+
+    // Open-addressing map from (state of a, state of b) to dense product ids, DEAD allowed on either side
+    private static final class PairIds {
+        private long[] keys = new long[32];
+        private int[] values = new int[32];
+        private int[] firsts = new int[16];
+        private int[] seconds = new int[16];
+        private int size;
+
+        PairIds() {
+            Arrays.fill(values, -1);
+        }
+
+        int size() {
+            return size;
+        }
+
+        int first(int id) {
+            return firsts[id];
+        }
+
+        int second(int id) {
+            return seconds[id];
+        }
+
+        int add(int p, int q) {
+            long key = ((long) p << 32) | (q & 0xFFFFFFFFL);
+            int mask = keys.length - 1;
+            int slot = (int) (mix(key) & mask);
+            while (values[slot] != -1) {
+                if (keys[slot] == key) return values[slot];
+                slot = (slot + 1) & mask;
+            }
+            int id = size++;
+            if (id == firsts.length) {
+                firsts = Arrays.copyOf(firsts, id * 2);
+                seconds = Arrays.copyOf(seconds, id * 2);
+            }
+            firsts[id] = p;
+            seconds[id] = q;
+            keys[slot] = key;
+            values[slot] = id;
+            if (size * 2 > keys.length) {
+                rehash();
+            }
+            return id;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(values, -1);
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] == -1) continue;
+                int slot = (int) (mix(oldKeys[i]) & mask);
+                while (values[slot] != -1) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+
+        private static long mix(long key) {
+            key *= 0x9E3779B97F4A7C15L;
+            return key ^ (key >>> 29);
+        }
+    }
+}
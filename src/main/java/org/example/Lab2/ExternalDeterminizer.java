@@ -0,0 +1,188 @@
+package org.example.Lab2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Subset construction for DFAs that do not fit on the heap. The interned subsets, their hashes and the
+ * open-addressing dedup table live in memory-mapped files under a work directory; finished transition
+ * rows are streamed to a rows file as soon as they are computed. BFS order needs no queue because ids are
+ * handed out in discovery order. The heap holds only scratch bitsets, the accepting bitset and the row
+ * write buffer, whose size comes from the configured budget. The result is written as an
+ * {@link AutomatonFile} and returned memory-mapped. Each rehash builds the larger dedup table further along
+ * the same slots file, so no work file is dropped while it is still mapped.
+ */
+final class ExternalDeterminizer implements AutoCloseable {
+    private static final long MIN_BUFFER = 64 * 1024;
+    private static final long MAX_BUFFER = 64L * 1024 * 1024;
+    private static final long INITIAL_CAPACITY = 1 << 16;
+
+    private final IndexedNFA nfa;
+    private final int words;
+    private final int symbols;
+    private final MappedArray subsets;
+    private final MappedArray hashes;
+    private final Path workDir;
+    private final MappedArray slots;
+    // The current dedup table is the int slots [slotBase, slotBase + 4 * capacity) bytes into the slots file
+    private long slotBase;
+    private long capacity;
+    private int size;
+    private final long[] probe;
+
+    private ExternalDeterminizer(IndexedNFA nfa, Path workDir, long initialCapacity) throws IOException {
+        this.nfa = nfa;
+        this.words = nfa.words();
+        this.symbols = nfa.symbolCount();
+        this.workDir = workDir;
+        this.subsets = new MappedArray(workDir.resolve("subsets.bin"));
+        this.hashes = new MappedArray(workDir.resolve("hashes.bin"));
+        this.probe = new long[words];
+        this.capacity = initialCapacity;
+        this.slots = new MappedArray(workDir.resolve("slots.bin"));
+        slots.ensureCapacity(4 * capacity);
+    }
+
+    static MappedDFA determinize(IndexedNFA nfa, Path workDir, Path output, long heapBudgetBytes) throws IOException {
+        return determinize(nfa, workDir, output, heapBudgetBytes, INITIAL_CAPACITY);
+    }
+
+    // A small initial dedup table forces rehashes on small automata, which tests rely on
+    static MappedDFA determinize(IndexedNFA nfa, Path workDir, Path output, long heapBudgetBytes, long initialCapacity)
+            throws IOException {
+        long scratch = 4L * 8 * nfa.words() + 4L * nfa.symbolCount();
+        if (heapBudgetBytes < scratch + MIN_BUFFER) {
+            throw new IllegalArgumentException("Heap budget too small: need at least " + (scratch + MIN_BUFFER) + " bytes");
+        }
+        Files.createDirectories(workDir);
+        try (ExternalDeterminizer determinizer = new ExternalDeterminizer(nfa, workDir, initialCapacity)) {
+            determinizer.run(output, heapBudgetBytes - scratch);
+        }
+        return AutomatonFile.mapDFA(output);
+    }
+
+    private void run(Path output, long budget) throws IOException {
+        Path rowsPath = workDir.resolve("rows.bin");
+        long[] current = new long[words];
+        long[] next = new long[words];
+        nfa.closure(nfa.start, current);
+        add(current);
+
+        // Accepting flags take one bit per state out of the budget; the rest is the row buffer
+        long[] accepting = new long[1];
+        int rowBytes = 4 * symbols;
+        try (FileChannel rows = FileChannel.open(rowsPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int bufferSize = (int) Math.min(MAX_BUFFER, Math.max(rowBytes, budget / 2 / Math.max(1, rowBytes) * rowBytes));
+            ByteBuffer buffer = ByteBuffer.allocate(Math.max(bufferSize, rowBytes)).order(ByteOrder.LITTLE_ENDIAN);
+
+            for (int id = 0; id < size; id++) {
+                read(id, current);
+                if (IndexedNFA.words(id + 1) > accepting.length) {
+                    accepting = Arrays.copyOf(accepting, accepting.length * 2);
+                    if (8L * accepting.length > budget / 2) {
+                        throw new IllegalStateException("Heap budget exhausted after " + id + " DFA states");
+                    }
+                }
+                if (IndexedNFA.intersects(current, nfa.accepting)) {
+                    IndexedNFA.set(accepting, id);
+                }
+                if (buffer.remaining() < rowBytes) {
+                    flush(rows, buffer);
+                }
+                for (int symbol = 0; symbol < symbols; symbol++) {
+                    Arrays.fill(next, 0);
+                    nfa.move(current, symbol, next);
+                    buffer.putInt(IndexedNFA.isEmpty(next) ? CompactDFA.DEAD : add(next));
+                }
+            }
+            flush(rows, buffer);
+            AutomatonFile.write(output, nfa.classes, size, Arrays.copyOf(accepting, IndexedNFA.words(size)), rows);
+        } finally {
+            Files.deleteIfExists(rowsPath);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void read(int id, long[] dst) {
+        long base = (long) id * words * 8;
+        for (int w = 0; w < words; w++) {
+            dst[w] = subsets.getLong(base + 8L * w);
+        }
+    }
+
+    private boolean equalsAt(int id, long[] set) {
+        long base = (long) id * words * 8;
+        for (int w = 0; w < words; w++) {
+            if (subsets.getLong(base + 8L * w) != set[w]) return false;
+        }
+        return true;
+    }
+
+    // Slot holds id + 1, 0 when empty
+    private int add(long[] set) throws IOException {
+        int hash = SubsetTable.hash(set);
+        long mask = capacity - 1;
+        long slot = hash & mask;
+        while (true) {
+            int stored = slots.getInt(slotBase + 4 * slot);
+            if (stored == 0) break;
+            int id = stored - 1;
+            if (hashes.getInt(4L * id) == hash && equalsAt(id, set)) return id;
+            slot = (slot + 1) & mask;
+        }
+
+        int id = size++;
+        if (id == Integer.MAX_VALUE - 1) {
+            throw new IllegalStateException("Too many DFA states");
+        }
+        long base = (long) id * words * 8;
+        subsets.ensureCapacity(base + 8L * words);
+        for (int w = 0; w < words; w++) {
+            subsets.putLong(base + 8L * w, set[w]);
+        }
+        hashes.ensureCapacity(4L * (id + 1));
+        hashes.putInt(4L * id, hash);
+        slots.putInt(slotBase + 4 * slot, id + 1);
+
+        if (2L * size > capacity) {
+            rehash();
+        }
+        return id;
+    }
+
+    // The doubled table goes right after the current one; the file only grows, so it starts out zeroed
+    private void rehash() throws IOException {
+        slotBase += 4 * capacity;
+        capacity *= 2;
+        slots.ensureCapacity(slotBase + 4 * capacity);
+        long mask = capacity - 1;
+        for (int id = 0; id < size; id++) {
+            long slot = hashes.getInt(4L * id) & mask;
+            while (slots.getInt(slotBase + 4 * slot) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots.putInt(slotBase + 4 * slot, id + 1);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        slots.close();
+        hashes.close();
+        subsets.close();
+    }
+}
@@ -5,39 +5,96 @@ import java.util.*;
 
 
 class FiniteAutomaton {
-    protected Set<String> states;
-    protected Set<Character> alphabet;
-    protected Map<String, Map<Character, Set<String>>> transitions;
-    protected String startState;
-    protected Set<String> finalStates;
+    // Transition key for epsilon moves; it is never part of the alphabet
+    public static final char EPSILON = 'ε';
+
+    // Unmodifiable copies: the indexed form and the matcher are derived from them once
+    protected final Set<String> states;
+    protected final Set<Character> alphabet;
+    protected final String startState;
+    protected final Set<String> finalStates;
+    // Transitions are kept only in compressed-sparse-row form, see IndexedNFA
+    final IndexedNFA indexed;
+    private BitParallelNFA matcher;
 
     public FiniteAutomaton(Set<String> states, Set<Character> alphabet,
                            Map<String, Map<Character, Set<String>>> transitions,
                            String startState, Set<String> finalStates) {
-        this.states = states;
-        this.alphabet = alphabet;
-        this.transitions = transitions;
+        this.states = Collections.unmodifiableSet(new LinkedHashSet<>(states));
+        this.alphabet = Collections.unmodifiableSet(new LinkedHashSet<>(alphabet));
         this.startState = startState;
-        this.finalStates = finalStates;
+        this.finalStates = Collections.unmodifiableSet(new LinkedHashSet<>(finalStates));
+        this.indexed = IndexedNFA.build(this.states, this.alphabet, transitions, startState, this.finalStates);
+    }
+
+    // Wraps already-indexed storage, e.g. loaded from an AutomatonFile
+    FiniteAutomaton(IndexedNFA indexed) {
+        this.states = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(indexed.stateNames)));
+        Set<Character> alphabet = new HashSet<>();
+        for (char c : indexed.classes.chars) {
+            alphabet.add(c);
+        }
+        this.alphabet = Collections.unmodifiableSet(alphabet);
+        this.startState = indexed.stateNames[indexed.start];
+        Set<String> finalStates = new HashSet<>();
+        for (int q = 0; q < indexed.stateCount; q++) {
+            if (IndexedNFA.get(indexed.accepting, q)) {
+                finalStates.add(indexed.stateNames[q]);
+            }
+        }
+        this.finalStates = Collections.unmodifiableSet(finalStates);
+        this.indexed = indexed;
+    }
+
+    // Transitions rebuilt as maps from the compact storage
+    public Map<String, Map<Character, Set<String>>> transitions() {
+        return indexed.transitionMap();
     }
 
 
     public boolean isDeterministic() {
-        for (Map<Character, Set<String>> stateTransitions : transitions.values()) {
-            for (Set<String> destinationStates : stateTransitions.values()) {
-                if (destinationStates.size() > 1) {
-                    return false;
-                }
-            }
+        return indexed.isDeterministic();
+    }
+
+    // Membership test directly on the (possibly nondeterministic) automaton; the matcher is built on first use
+    public boolean accepts(CharSequence input) {
+        if (matcher == null) {
+            matcher = new BitParallelNFA(IndexedNFA.of(this));
         }
-        return true;
+        return matcher.accepts(input);
+    }
+
+    // Smallest equivalent DFA (determinizing first if needed), via Hopcroft's algorithm
+    public FiniteAutomaton minimize() {
+        return DFAConverter.determinize(this).minimize().toFiniteAutomaton();
+    }
+
+    public FiniteAutomaton intersection(FiniteAutomaton other) {
+        return DFAOperations.intersection(DFAConverter.determinize(this), DFAConverter.determinize(other)).toFiniteAutomaton();
+    }
+
+    public FiniteAutomaton union(FiniteAutomaton other) {
+        return DFAOperations.union(DFAConverter.determinize(this), DFAConverter.determinize(other)).toFiniteAutomaton();
+    }
+
+    public FiniteAutomaton difference(FiniteAutomaton other) {
+        return DFAOperations.difference(DFAConverter.determinize(this), DFAConverter.determinize(other)).toFiniteAutomaton();
+    }
+
+    public boolean isEquivalent(FiniteAutomaton other) {
+        return distinguishingWord(other) == null;
+    }
+
+    // A word accepted by exactly one of the two automata, or null if they accept the same language
+    public String distinguishingWord(FiniteAutomaton other) {
+        return DFAOperations.counterexample(DFAConverter.determinize(this), DFAConverter.determinize(other));
     }
 
     // Print the details of the automaton
     public void printFA() {
         System.out.println("States: " + states);
         System.out.println("Alphabet: " + alphabet);
-        System.out.println("Transitions: " + transitions);
+        System.out.println("Transitions: " + transitions());
         System.out.println("Start State: " + startState);
         System.out.println("Final States: " + finalStates);
     }
@@ -0,0 +1,403 @@
+package org.example.Lab2;
+
+import java.util.*;
+
+/**
+ * Int-indexed, compressed-sparse-row storage of an automaton. States are numbered by sorted name and the
+ * alphabet is collapsed into {@link SymbolClasses}; the targets of (state, class) are the sorted slice
+ * {@code targets[offsets[state * classCount + class] .. offsets[state * classCount + class + 1])}.
+ * Epsilon moves have their own CSR rows. State sets are {@code long[]} bitsets of {@link #words()} words.
+ * Epsilon-closures are computed once, per strongly connected component of the epsilon graph, and stored as
+ * bitsets, so {@link #move} only ORs precomputed closures.
+ */
+final class IndexedNFA {
+    final int stateCount;
+    final String[] stateNames;
+    final SymbolClasses classes;
+    final int start;
+    final long[] accepting;
+    final int[] offsets;
+    final int[] targets;
+    final int[] epsOffsets;
+    final int[] epsTargets;
+
+    // closures[sccOf[q] * words .. + words) is the epsilon-closure of q; both null without epsilon moves
+    private final int[] sccOf;
+    private final long[] closures;
+
+    IndexedNFA(String[] stateNames, SymbolClasses classes, int start, long[] accepting,
+               int[] offsets, int[] targets, int[] epsOffsets, int[] epsTargets) {
+        this.stateCount = stateNames.length;
+        this.stateNames = stateNames;
+        this.classes = classes;
+        this.start = start;
+        this.accepting = accepting;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.epsOffsets = epsOffsets;
+        this.epsTargets = epsTargets;
+
+        if (epsTargets.length > 0) {
+            this.sccOf = new int[stateCount];
+            this.closures = condense(epsOffsets, epsTargets, sccOf, words(stateCount));
+        } else {
+            this.sccOf = null;
+            this.closures = null;
+        }
+    }
+
+    static IndexedNFA of(FiniteAutomaton fa) {
+        return fa.indexed;
+    }
+
+    static IndexedNFA build(Set<String> states, Set<Character> alphabet,
+                            Map<String, Map<Character, Set<String>>> transitions,
+                            String startState, Set<String> finalStates) {
+        SortedSet<String> names = new TreeSet<>(states);
+        names.add(startState);
+        names.addAll(finalStates);
+        for (Map.Entry<String, Map<Character, Set<String>>> entry : transitions.entrySet()) {
+            names.add(entry.getKey());
+            for (Set<String> destinations : entry.getValue().values()) {
+                names.addAll(destinations);
+            }
+        }
+        String[] stateNames = names.toArray(new String[0]);
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < stateNames.length; i++) {
+            ids.put(stateNames[i], i);
+        }
+        int n = stateNames.length;
+
+        SortedSet<Character> symbols = new TreeSet<>(alphabet);
+        symbols.remove(FiniteAutomaton.EPSILON);
+        char[] chars = new char[symbols.size()];
+        int k = 0;
+        for (char c : symbols) {
+            chars[k++] = c;
+        }
+
+        // Column of each character, flattened as (state, count, sorted targets) runs in state order;
+        // characters with equal columns share a class
+        int[][] columns = new int[chars.length][];
+        int[] lengths = new int[chars.length];
+        int[][] epsilon = new int[n][];
+        for (int from = 0; from < n; from++) {
+            Map<Character, Set<String>> row = transitions.get(stateNames[from]);
+            if (row == null) continue;
+            for (Map.Entry<Character, Set<String>> move : row.entrySet()) {
+                int[] to = new int[move.getValue().size()];
+                int i = 0;
+                for (String destination : move.getValue()) {
+                    to[i++] = ids.get(destination);
+                }
+                Arrays.sort(to);
+                if (move.getKey() == FiniteAutomaton.EPSILON) {
+                    epsilon[from] = to;
+                    continue;
+                }
+                int symbol = Arrays.binarySearch(chars, move.getKey());
+                if (symbol < 0) {
+                    throw new IllegalArgumentException("Symbol not in alphabet: " + move.getKey());
+                }
+                if (to.length == 0) continue;
+                int length = lengths[symbol];
+                int[] column = columns[symbol];
+                if (column == null) {
+                    column = columns[symbol] = new int[Math.max(16, 2 + to.length)];
+                } else if (length + 2 + to.length > column.length) {
+                    column = columns[symbol] = Arrays.copyOf(column, Math.max(2 * column.length, length + 2 + to.length));
+                }
+                column[length] = from;
+                column[length + 1] = to.length;
+                System.arraycopy(to, 0, column, length + 2, to.length);
+                lengths[symbol] = length + 2 + to.length;
+            }
+        }
+
+        Map<Column, Integer> classOfColumn = new HashMap<>();
+        int[] classOfChar = new int[chars.length];
+        int[] firstOfClass = new int[chars.length];
+        int classCount = 0;
+        for (int symbol = 0; symbol < chars.length; symbol++) {
+            columns[symbol] = columns[symbol] == null ? new int[0] : Arrays.copyOf(columns[symbol], lengths[symbol]);
+            Integer cls = classOfColumn.putIfAbsent(new Column(columns[symbol]), classCount);
+            if (cls == null) {
+                cls = classCount;
+                firstOfClass[classCount++] = symbol;
+            }
+            classOfChar[symbol] = cls;
+        }
+
+        int[] offsets = new int[n * classCount + 1];
+        for (int cls = 0; cls < classCount; cls++) {
+            int[] column = columns[firstOfClass[cls]];
+            for (int i = 0; i < column.length; i += 2 + column[i + 1]) {
+                offsets[column[i] * classCount + cls + 1] = column[i + 1];
+            }
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            offsets[i] += offsets[i - 1];
+        }
+        int[] targets = new int[offsets[offsets.length - 1]];
+        for (int cls = 0; cls < classCount; cls++) {
+            int[] column = columns[firstOfClass[cls]];
+            for (int i = 0; i < column.length; i += 2 + column[i + 1]) {
+                System.arraycopy(column, i + 2, targets, offsets[column[i] * classCount + cls], column[i + 1]);
+            }
+        }
+
+        int[] epsOffsets = new int[n + 1];
+        for (int q = 0; q < n; q++) {
+            epsOffsets[q + 1] = epsOffsets[q] + (epsilon[q] == null ? 0 : epsilon[q].length);
+        }
+        int[] epsTargets = new int[epsOffsets[n]];
+        for (int q = 0; q < n; q++) {
+            if (epsilon[q] != null) {
+                System.arraycopy(epsilon[q], 0, epsTargets, epsOffsets[q], epsilon[q].length);
+            }
+        }
+
+        long[] accepting = new long[words(n)];
+        for (String state : finalStates) {
+            set(accepting, ids.get(state));
+        }
+        return new IndexedNFA(stateNames, new SymbolClasses(chars, classOfChar, classCount), ids.get(startState),
+                accepting, offsets, targets, epsOffsets, epsTargets);
+    }
+
+    // Flattened column compared by content
+    private static final class Column {
+        private final int[] data;
+        private final int hash;
+
+        Column(int[] data) {
+            this.data = data;
+            this.hash = Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Column && Arrays.equals(data, ((Column) o).data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Iterative Tarjan over the epsilon graph. SCCs come out in reverse topological order, so every SCC
+    // reachable from the current one already has its closure when the current one is finished.
+    private static long[] condense(int[] epsOffsets, int[] epsTargets, int[] sccOf, int words) {
+        int n = sccOf.length;
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] edge = new int[n];
+        boolean[] onStack = new boolean[n];
+        int[] stack = new int[n];
+        int[] callStack = new int[n];
+        Arrays.fill(index, -1);
+        int counter = 0;
+        int stackSize = 0;
+        int sccCount = 0;
+        long[] closures = new long[16 * words];
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) continue;
+            edge[root] = epsOffsets[root];
+            int depth = 0;
+            callStack[depth++] = root;
+            index[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+
+            while (depth > 0) {
+                int v = callStack[depth - 1];
+                if (edge[v] < epsOffsets[v + 1]) {
+                    int w = epsTargets[edge[v]++];
+                    if (index[w] == -1) {
+                        index[w] = low[w] = counter++;
+                        edge[w] = epsOffsets[w];
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        callStack[depth++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+
+                depth--;
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+                if (low[v] != index[v]) continue;
+
+                int scc = sccCount++;
+                if ((scc + 1) * words > closures.length) {
+                    closures = Arrays.copyOf(closures, closures.length * 2);
+                }
+                int base = scc * words;
+                int top = stackSize;
+                int w;
+                do {
+                    w = stack[--stackSize];
+                    onStack[w] = false;
+                    sccOf[w] = scc;
+                    closures[base + (w >>> 6)] |= 1L << w;
+                } while (w != v);
+                for (int i = stackSize; i < top; i++) {
+                    for (int e = epsOffsets[stack[i]]; e < epsOffsets[stack[i] + 1]; e++) {
+                        int other = sccOf[epsTargets[e]];
+                        if (other == scc) continue;
+                        int otherBase = other * words;
+                        for (int x = 0; x < words; x++) {
+                            closures[base + x] |= closures[otherBase + x];
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(closures, sccCount * words);
+    }
+
+    // Number of symbol classes, i.e. columns of the transition table
+    int symbolCount() {
+        return classes.classCount;
+    }
+
+    int words() {
+        return words(stateCount);
+    }
+
+    int rowStart(int state, int cls) {
+        return offsets[state * classes.classCount + cls];
+    }
+
+    int rowEnd(int state, int cls) {
+        return offsets[state * classes.classCount + cls + 1];
+    }
+
+    int target(int index) {
+        return targets[index];
+    }
+
+    int epsilonStart(int state) {
+        return epsOffsets[state];
+    }
+
+    int epsilonEnd(int state) {
+        return epsOffsets[state + 1];
+    }
+
+    int epsilonTarget(int index) {
+        return epsTargets[index];
+    }
+
+    boolean hasEpsilon() {
+        return closures != null;
+    }
+
+    // No epsilon moves and at most one target per (state, class)
+    boolean isDeterministic() {
+        if (epsTargets.length > 0) {
+            return false;
+        }
+        for (int i = 0; i + 1 < offsets.length; i++) {
+            if (offsets[i + 1] - offsets[i] > 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Map view of the transitions, one entry per state, in the shape FiniteAutomaton's constructor takes
+    Map<String, Map<Character, Set<String>>> transitionMap() {
+        Map<String, Map<Character, Set<String>>> map = new HashMap<>();
+        for (int q = 0; q < stateCount; q++) {
+            Map<Character, Set<String>> row = new HashMap<>();
+            for (int i = 0; i < classes.chars.length; i++) {
+                int cls = classes.classOfChar[i];
+                if (rowStart(q, cls) == rowEnd(q, cls)) continue;
+                Set<String> destinations = new HashSet<>();
+                for (int e = rowStart(q, cls); e < rowEnd(q, cls); e++) {
+                    destinations.add(stateNames[targets[e]]);
+                }
+                row.put(classes.chars[i], destinations);
+            }
+            if (epsOffsets[q] < epsOffsets[q + 1]) {
+                Set<String> destinations = new HashSet<>();
+                for (int e = epsOffsets[q]; e < epsOffsets[q + 1]; e++) {
+                    destinations.add(stateNames[epsTargets[e]]);
+                }
+                row.put(FiniteAutomaton.EPSILON, destinations);
+            }
+            map.put(stateNames[q], row);
+        }
+        return map;
+    }
+
+    // dst |= epsilon-closure of state
+    void closure(int state, long[] dst) {
+        if (closures == null) {
+            set(dst, state);
+            return;
+        }
+        int base = sccOf[state] * dst.length;
+        for (int w = 0; w < dst.length; w++) {
+            dst[w] |= closures[base + w];
+        }
+    }
+
+    // dst |= epsilon-closure of the targets of every state in set on symbol
+    void move(long[] set, int symbol, long[] dst) {
+        for (int w = 0; w < set.length; w++) {
+            for (long bits = set[w]; bits != 0; bits &= bits - 1) {
+                int state = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int base = state * classes.classCount + symbol;
+                for (int e = offsets[base]; e < offsets[base + 1]; e++) {
+                    closure(targets[e], dst);
+                }
+            }
+        }
+    }
+
+    // Sorted state names joined with "_", the naming the original converter used
+    String nameOf(long[] set) {
+        StringJoiner joiner = new StringJoiner("_");
+        for (int w = 0; w < set.length; w++) {
+            for (long bits = set[w]; bits != 0; bits &= bits - 1) {
+                joiner.add(stateNames[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+            }
+        }
+        return joiner.toString();
+    }
+
+    static int words(int states) {
+        return (states + 63) >>> 6;
+    }
+
+    static void set(long[] set, int bit) {
+        set[bit >>> 6] |= 1L << bit;
+    }
+
+    static boolean get(long[] set, int bit) {
+        return (set[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    static boolean intersects(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            if ((a[w] & b[w]) != 0) return true;
+        }
+        return false;
+    }
+
+    static boolean isEmpty(long[] set) {
+        for (long word : set) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.Lab2;
+
+import java.util.Arrays;
+
+/**
+ * Determinizes an NFA on the fly while matching. DFA states are discovered as the input reaches them and kept
+ * in a cache of at most {@code maxStates} states; when the cache is full it is flushed and rebuilt from the
+ * current state. If flushes come faster than the cache pays off (fewer than {@link #MIN_CHARS_PER_STATE}
+ * characters per cached state), the rest of the input is matched by plain NFA simulation over bitsets.
+ * Instances are not thread-safe; use one per thread.
+ */
+class LazyDFA {
+    static final int MIN_CHARS_PER_STATE = 10;
+    private static final int UNKNOWN = -2;
+
+    private final IndexedNFA nfa;
+    private final int maxStates;
+    private final int symbols;
+    private final SubsetTable cache;
+    private final int[] table;
+    private final boolean[] accepting;
+    private final long[] current;
+    private final long[] next;
+    private int startState;
+    private long flushes;
+    private long fallbacks;
+    private long charsSinceFlush;
+
+    LazyDFA(FiniteAutomaton nfa, int maxStates) {
+        this(IndexedNFA.of(nfa), maxStates);
+    }
+
+    LazyDFA(IndexedNFA nfa, int maxStates) {
+        if (maxStates < 2) {
+            throw new IllegalArgumentException("Cache must hold at least 2 states: " + maxStates);
+        }
+        this.nfa = nfa;
+        this.maxStates = maxStates;
+        this.symbols = nfa.symbolCount();
+        this.cache = new SubsetTable(nfa.words(), maxStates);
+        this.table = new int[maxStates * Math.max(1, symbols)];
+        this.accepting = new boolean[maxStates];
+        this.current = new long[nfa.words()];
+        this.next = new long[nfa.words()];
+        flush();
+    }
+
+    int cachedStates() {
+        return cache.size();
+    }
+
+    long flushes() {
+        return flushes;
+    }
+
+    long fallbacks() {
+        return fallbacks;
+    }
+
+    boolean accepts(CharSequence input) {
+        int state = startState;
+
+        for (int i = 0, n = input.length(); i < n; i++) {
+            int symbol = symbolOf(input.charAt(i));
+            if (symbol < 0) {
+                return false;
+            }
+            int target = table[state * symbols + symbol];
+            if (target == UNKNOWN) {
+                cache.get(state, current);
+                Arrays.fill(next, 0);
+                nfa.move(current, symbol, next);
+                boolean flushed = false;
+                if (IndexedNFA.isEmpty(next)) {
+                    target = CompactDFA.DEAD;
+                } else {
+                    if (cache.find(next) < 0 && cache.size() == maxStates) {
+                        if (charsSinceFlush < (long) MIN_CHARS_PER_STATE * maxStates) {
+                            fallbacks++;
+                            return simulate(next, input, i + 1);
+                        }
+                        flush();
+                        flushed = true;
+                    }
+                    target = intern(next);
+                }
+                // After a flush the source state is gone, so the edge cannot be recorded
+                if (!flushed) {
+                    table[state * symbols + symbol] = target;
+                }
+            }
+            if (target == CompactDFA.DEAD) {
+                return false;
+            }
+            state = target;
+            charsSinceFlush++;
+        }
+        return accepting[state];
+    }
+
+    private boolean simulate(long[] set, CharSequence input, int from) {
+        long[] states = set.clone();
+        long[] moved = new long[states.length];
+        for (int i = from, n = input.length(); i < n; i++) {
+            int symbol = symbolOf(input.charAt(i));
+            if (symbol < 0) {
+                return false;
+            }
+            Arrays.fill(moved, 0);
+            nfa.move(states, symbol, moved);
+            long[] swap = states;
+            states = moved;
+            moved = swap;
+            if (IndexedNFA.isEmpty(states)) {
+                return false;
+            }
+        }
+        return IndexedNFA.intersects(states, nfa.accepting);
+    }
+
+    private int symbolOf(char c) {
+        return nfa.classes.classOf(c);
+    }
+
+    private int intern(long[] set) {
+        int before = cache.size();
+        int id = cache.add(set);
+        if (id == before) {
+            Arrays.fill(table, id * symbols, (id + 1) * symbols, UNKNOWN);
+            accepting[id] = IndexedNFA.intersects(set, nfa.accepting);
+        }
+        return id;
+    }
+
+    private void flush() {
+        if (cache.size() > 0) {
+            flushes++;
+        }
+        cache.clear();
+        charsSinceFlush = 0;
+        long[] start = new long[nfa.words()];
+        nfa.closure(nfa.start, start);
+        startState = intern(start);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.Lab2;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Growable array of ints and longs backed by a memory-mapped file, mapped in fixed-size segments so it can
+ * exceed 2 GB. Index arithmetic is in bytes; callers keep 8-byte values 8-byte aligned.
+ */
+final class MappedArray implements AutoCloseable {
+    private static final int SEGMENT_SHIFT = 28;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+    MappedArray(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // Makes bytes [0, size) addressable; new space reads as zero
+    void ensureCapacity(long size) throws IOException {
+        int needed = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        if (needed <= segments.length) return;
+        int old = segments.length;
+        segments = Arrays.copyOf(segments, needed);
+        for (int s = old; s < needed; s++) {
+            segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, s * SEGMENT_SIZE, SEGMENT_SIZE);
+            segments[s].order(ByteOrder.nativeOrder());
+        }
+    }
+
+    int getInt(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getInt((int) (offset & SEGMENT_MASK));
+    }
+
+    void putInt(long offset, int value) {
+        segments[(int) (offset >>> SEGMENT_SHIFT)].putInt((int) (offset & SEGMENT_MASK), value);
+    }
+
+    long getLong(long offset) {
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & SEGMENT_MASK));
+    }
+
+    void putLong(long offset, long value) {
+        segments[(int) (offset >>> SEGMENT_SHIFT)].putLong((int) (offset & SEGMENT_MASK), value);
+    }
+
+    // Closing does not unmap the segments, that happens when they are collected. Some platforms (Windows)
+    // refuse to delete a file that is still mapped; it is then deleted when the JVM exits.
+    @Override
+    public void close() throws IOException {
+        segments = new MappedByteBuffer[0];
+        channel.close();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            path.toFile().deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.Lab2;
+
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+
+/**
+ * DFA whose transition table and accepting bitset are read in place from a memory-mapped
+ * {@link AutomatonFile}. Opening one costs a header parse, however large the table is. The file is mapped
+ * in fixed-size segments addressed with long offsets, so tables past 2 GB work; sections are 8-byte
+ * aligned, so no int or long straddles two segments.
+ */
+final class MappedDFA {
+    static final int SEGMENT_SHIFT = 28;
+    static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final MappedByteBuffer[] segments;
+    private final long table;
+    private final long accepting;
+    private final SymbolClasses classes;
+    private final int stateCount;
+
+    MappedDFA(MappedByteBuffer[] segments, AutomatonFile.Layout layout, SymbolClasses classes) {
+        this.segments = segments;
+        this.classes = classes;
+        this.stateCount = layout.stateCount;
+        this.accepting = layout.accepting;
+        this.table = layout.table;
+    }
+
+    int stateCount() {
+        return stateCount;
+    }
+
+    int symbolCount() {
+        return classes.classCount;
+    }
+
+    int next(int state, int symbol) {
+        long offset = table + 4L * ((long) state * classes.classCount + symbol);
+        return segments[(int) (offset >>> SEGMENT_SHIFT)].getInt((int) (offset & SEGMENT_MASK));
+    }
+
+    boolean isAccepting(int state) {
+        long offset = accepting + 8L * (state >>> 6);
+        return (segments[(int) (offset >>> SEGMENT_SHIFT)].getLong((int) (offset & SEGMENT_MASK)) & (1L << state)) != 0;
+    }
+
+    boolean accepts(CharSequence input) {
+        int state = 0;
+        for (int i = 0, n = input.length(); i < n; i++) {
+            int symbol = classes.classOf(input.charAt(i));
+            if (symbol < 0) {
+                return false;
+            }
+            state = next(state, symbol);
+            if (state == CompactDFA.DEAD) {
+                return false;
+            }
+        }
+        return isAccepting(state);
+    }
+
+    // Copies the mapped tables onto the heap, e.g. to minimize or combine the automaton
+    CompactDFA toCompactDFA() {
+        long cells = (long) stateCount * classes.classCount;
+        if (cells > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("DFA too large for the heap: " + cells + " transitions");
+        }
+        int[] copy = new int[(int) cells];
+        long offset = table;
+        for (int done = 0; done < copy.length; ) {
+            MappedByteBuffer segment = segments[(int) (offset >>> SEGMENT_SHIFT)];
+            int position = (int) (offset & SEGMENT_MASK);
+            int count = Math.min(copy.length - done, (segment.limit() - position) / 4);
+            segment.slice(position, 4 * count).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(copy, done, count);
+            done += count;
+            offset += 4L * count;
+        }
+        boolean[] flags = new boolean[stateCount];
+        for (int q = 0; q < stateCount; q++) {
+            flags[q] = isAccepting(q);
+        }
+        return new CompactDFA(stateCount, classes, copy, flags, null);
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.Lab2;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Level-synchronous parallel subset construction. Each BFS level is expanded by fork-join tasks that intern
+ * the successor subsets in a lock-striped table, remembering for every new subset the smallest
+ * (parent id, symbol) that reached it. Between levels the new subsets are numbered in that order, which is
+ * exactly the order the sequential {@link DFAConverter#determinize} discovers them in, so the resulting
+ * numbering is the same on every run and for every pool size.
+ */
+final class ParallelDeterminizer {
+    private static final int STRIPES = 64;
+    private static final int LEAF_SIZE = 64;
+
+    private static final class Stripe {
+        final SubsetTable table;
+        int[] finalId = new int[16];
+        long[] discovery = new long[16];
+        int[] fresh = new int[16];
+        int freshCount;
+
+        Stripe(int words) {
+            table = new SubsetTable(words);
+        }
+
+        synchronized long intern(long[] set, long order, int stripe) {
+            int before = table.size();
+            int local = table.add(set);
+            if (local == before) {
+                if (local == finalId.length) {
+                    finalId = Arrays.copyOf(finalId, local * 2);
+                    discovery = Arrays.copyOf(discovery, local * 2);
+                }
+                finalId[local] = -1;
+                discovery[local] = order;
+                if (freshCount == fresh.length) {
+                    fresh = Arrays.copyOf(fresh, freshCount * 2);
+                }
+                fresh[freshCount++] = local;
+            } else if (finalId[local] < 0 && order < discovery[local]) {
+                discovery[local] = order;
+            }
+            return ((long) stripe << 32) | local;
+        }
+    }
+
+    private final IndexedNFA nfa;
+    private final int symbols;
+    private final int words;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private long[] handleOf = new long[16];
+    private int[] table = new int[16];
+    private boolean[] accepting = new boolean[16];
+    private int stateCount;
+
+    private ParallelDeterminizer(IndexedNFA nfa) {
+        this.nfa = nfa;
+        this.symbols = nfa.symbolCount();
+        this.words = nfa.words();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(words);
+        }
+    }
+
+    static CompactDFA determinize(IndexedNFA nfa, ForkJoinPool pool) {
+        return new ParallelDeterminizer(nfa).run(pool);
+    }
+
+    private static int stripeOf(long[] set) {
+        return SubsetTable.hash(set) >>> 26;
+    }
+
+    private long intern(long[] set, long order) {
+        int stripe = stripeOf(set);
+        return stripes[stripe].intern(set, order, stripe);
+    }
+
+    private void subset(long handle, long[] dst) {
+        stripes[(int) (handle >>> 32)].table.get((int) handle, dst);
+    }
+
+    private int finalId(long handle) {
+        return stripes[(int) (handle >>> 32)].finalId[(int) handle];
+    }
+
+    private CompactDFA run(ForkJoinPool pool) {
+        long[] start = new long[words];
+        nfa.closure(nfa.start, start);
+        intern(start, 0);
+        int[] frontier = assignFresh();
+
+        while (frontier.length > 0) {
+            long[] sets = new long[frontier.length * words];
+            long[] scratch = new long[words];
+            for (int i = 0; i < frontier.length; i++) {
+                subset(handleOf[frontier[i]], scratch);
+                System.arraycopy(scratch, 0, sets, i * words, words);
+            }
+
+            long[] targets = new long[frontier.length * symbols];
+            pool.invoke(new Expand(frontier, sets, targets, 0, frontier.length));
+            int[] next = assignFresh();
+
+            for (int i = 0; i < frontier.length; i++) {
+                for (int symbol = 0; symbol < symbols; symbol++) {
+                    long handle = targets[i * symbols + symbol];
+                    table[frontier[i] * symbols + symbol] = handle < 0 ? CompactDFA.DEAD : finalId(handle);
+                }
+            }
+            frontier = next;
+        }
+
+        long[] handles = Arrays.copyOf(handleOf, stateCount);
+        return new CompactDFA(stateCount, nfa.classes, Arrays.copyOf(table, stateCount * symbols),
+                Arrays.copyOf(accepting, stateCount), id -> {
+                    long[] set = new long[words];
+                    subset(handles[id], set);
+                    return nfa.nameOf(set);
+                });
+    }
+
+    // Numbers the subsets first seen in the last level by their smallest (parent, symbol) and returns their ids
+    private int[] assignFresh() {
+        List<long[]> fresh = new ArrayList<>();
+        for (int s = 0; s < STRIPES; s++) {
+            Stripe stripe = stripes[s];
+            for (int i = 0; i < stripe.freshCount; i++) {
+                int local = stripe.fresh[i];
+                fresh.add(new long[]{stripe.discovery[local], ((long) s << 32) | local});
+            }
+            stripe.freshCount = 0;
+        }
+        fresh.sort(Comparator.comparingLong(entry -> entry[0]));
+
+        int[] ids = new int[fresh.size()];
+        long[] set = new long[words];
+        for (int i = 0; i < ids.length; i++) {
+            long handle = fresh.get(i)[1];
+            int id = stateCount++;
+            if (id == handleOf.length) {
+                handleOf = Arrays.copyOf(handleOf, id * 2);
+                accepting = Arrays.copyOf(accepting, id * 2);
+            }
+            if ((id + 1) * symbols > table.length) {
+                table = Arrays.copyOf(table, Math.max(table.length * 2, (id + 1) * symbols));
+            }
+            handleOf[id] = handle;
+            stripes[(int) (handle >>> 32)].finalId[(int) handle] = id;
+            subset(handle, set);
+            accepting[id] = IndexedNFA.intersects(set, nfa.accepting);
+            ids[i] = id;
+        }
+        return ids;
+    }
+
+    @SuppressWarnings("serial")
+    private final class Expand extends RecursiveAction {
+        private final int[] frontier;
+        private final long[] sets;
+        private final long[] targets;
+        private final int from;
+        private final int to;
+
+        Expand(int[] frontier, long[] sets, long[] targets, int from, int to) {
+            this.frontier = frontier;
+            this.sets = sets;
+            this.targets = targets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Expand(frontier, sets, targets, from, mid), new Expand(frontier, sets, targets, mid, to));
+                return;
+            }
+            long[] current = new long[words];
+            long[] next = new long[words];
+            for (int i = from; i < to; i++) {
+                System.arraycopy(sets, i * words, current, 0, words);
+                for (int symbol = 0; symbol < symbols; symbol++) {
+                    Arrays.fill(next, 0);
+                    nfa.move(current, symbol, next);
+                    targets[i * symbols + symbol] = IndexedNFA.isEmpty(next)
+                            ? -1
+                            : intern(next, (long) frontier[i] * symbols + symbol);
+                }
+            }
+        }
+    }
+}
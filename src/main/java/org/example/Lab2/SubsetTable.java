@@ -0,0 +1,120 @@
+package org.example.Lab2;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of fixed-width {@code long[]} bitsets that hands out dense ids in insertion order.
+ * Subsets are copied into one flat {@code long[]} pool, so the table holds no per-entry objects.
+ */
+final class SubsetTable {
+    private static final int EMPTY = -1;
+
+    private final int words;
+    private long[] pool;
+    private int[] hashes;
+    private int[] slots;
+    private int size;
+
+    SubsetTable(int words) {
+        this(words, 16);
+    }
+
+    SubsetTable(int words, int expected) {
+        this.words = words;
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        this.pool = new long[Math.max(1, expected * words)];
+        this.hashes = new int[expected];
+        this.slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int words() {
+        return words;
+    }
+
+    // Id of set, or -1 if it is not in the table
+    int find(long[] set) {
+        int hash = hash(set);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot];
+            if (id == EMPTY) return -1;
+            if (hashes[id] == hash && equalsAt(id, set)) return id;
+        }
+    }
+
+    // Id of set, inserting a copy if it is new; new ids are always size() - 1 afterwards
+    int add(long[] set) {
+        int hash = hash(set);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+        for (; ; slot = (slot + 1) & mask) {
+            int id = slots[slot];
+            if (id == EMPTY) break;
+            if (hashes[id] == hash && equalsAt(id, set)) return id;
+        }
+
+        int id = size++;
+        if (id == hashes.length) {
+            hashes = Arrays.copyOf(hashes, id * 2);
+            pool = Arrays.copyOf(pool, Math.max(pool.length * 2, hashes.length * words));
+        }
+        System.arraycopy(set, 0, pool, id * words, words);
+        hashes[id] = hash;
+        slots[slot] = id;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    // Forgets every subset but keeps the allocated arrays
+    void clear() {
+        Arrays.fill(slots, EMPTY);
+        size = 0;
+    }
+
+    void get(int id, long[] dst) {
+        System.arraycopy(pool, id * words, dst, 0, words);
+    }
+
+    long[] get(int id) {
+        long[] set = new long[words];
+        get(id, set);
+        return set;
+    }
+
+    private boolean equalsAt(int id, long[] set) {
+        int base = id * words;
+        for (int w = 0; w < words; w++) {
+            if (pool[base + w] != set[w]) return false;
+        }
+        return true;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        Arrays.fill(slots, EMPTY);
+        int mask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id;
+        }
+    }
+
+    static int hash(long[] set) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (long word : set) {
+            h = (h ^ word) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.Lab2;
+
+import java.util.Arrays;
+
+/**
+ * Alphabet collapsed into equivalence classes: characters that behave identically in every state share
+ * one class, and transition tables get one column per class instead of one per character.
+ * Lookup goes through a table indexed by character code, where 0 means "not in the alphabet"; the table
+ * holds bytes while the classes fit in one, ints otherwise.
+ */
+final class SymbolClasses {
+    static final int MAX_BYTE_CLASSES = 255;
+
+    final char[] chars;
+    final int[] classOfChar;
+    final int classCount;
+    private final byte[] lookup;
+    private final int[] wideLookup;
+
+    SymbolClasses(char[] chars, int[] classOfChar, int classCount) {
+        this.chars = chars;
+        this.classOfChar = classOfChar;
+        this.classCount = classCount;
+        int size = chars.length == 0 ? 0 : chars[chars.length - 1] + 1;
+        if (classCount <= MAX_BYTE_CLASSES) {
+            this.lookup = new byte[size];
+            this.wideLookup = null;
+            for (int i = 0; i < chars.length; i++) {
+                lookup[chars[i]] = (byte) (classOfChar[i] + 1);
+            }
+        } else {
+            this.lookup = null;
+            this.wideLookup = new int[size];
+            for (int i = 0; i < chars.length; i++) {
+                wideLookup[chars[i]] = classOfChar[i] + 1;
+            }
+        }
+    }
+
+    // Every character in its own class
+    static SymbolClasses identity(char[] chars) {
+        int[] classes = new int[chars.length];
+        Arrays.setAll(classes, i -> i);
+        return new SymbolClasses(chars, classes, chars.length);
+    }
+
+    // Class of c, or -1 if c is not in the alphabet
+    int classOf(char c) {
+        if (lookup != null) {
+            return c < lookup.length ? (lookup[c] & 0xFF) - 1 : -1;
+        }
+        return c < wideLookup.length ? wideLookup[c] - 1 : -1;
+    }
+
+    // Lowest character of a class
+    char representative(int cls) {
+        for (int i = 0; i < chars.length; i++) {
+            if (classOfChar[i] == cls) return chars[i];
+        }
+        throw new IllegalArgumentException("No such class: " + cls);
+    }
+}
@@ -1,68 +1,98 @@
 package org.example.Lab3;
 
 import java.util.*;
-import java.util.regex.*;
 
+/**
+ * Splits DSL source into (type, value) pairs. All token kinds are recognised by one longest-match DFA
+ * ({@link LexerDFA}) in a single pass; keywords are ID lexemes found in a perfect-hash keyword table.
+ */
 public class DSLTokenizer {
 
-    private static final String ID = "[a-zA-Z_][a-zA-Z0-9_-]*";
-    private static final String NUMBER = "\\d+";
-    private static final String STRING = "\"[^\"]*\"";
-    private static final String IPV4_ADDRESS = "(?:\\d{1,3}\\.){3}\\d{1,3}";
-    private static final String MAC_ADDRESS = "[0-9A-Fa-f]{4}\\.[0-9A-Fa-f]{4}\\.[0-9A-Fa-f]{4}";
-
-
     private static final String[] keywords = {
             "network", "device", "module", "slot", "interface", "vlan", "route", "dhcp", "acl", "link",
             "coordinates", "power", "gateway", "dns", "bandwidth", "allow", "deny", "from", "to", "pool",
             "name", "desc", "cable", "length", "functional", "static"
     };
 
-    private static final List<Pattern> tokenPatterns = new ArrayList<>();
-    private static final Map<Pattern, String> tokenTypes = new HashMap<>();
+    // Keyword lookup on ID lexemes: a perfect hash into a power-of-two table, then one region compare
+    private static final int KEYWORD_SLOTS = 64;
+    private static final String[] keywordSlots = new String[KEYWORD_SLOTS];
+    private static final String[] keywordTypes = new String[KEYWORD_SLOTS];
+    private static final int keywordSeed;
 
     static {
-        addToken("IPV4_ADDRESS", IPV4_ADDRESS);
-        addToken("MAC_ADDRESS", MAC_ADDRESS);
-        addToken("STRING", STRING);
-        addToken("NUMBER", NUMBER);
+        int seed = 1;
+        while (!placeKeywords(seed)) {
+            seed++;
+        }
+        keywordSeed = seed;
+    }
 
+    private static boolean placeKeywords(int seed) {
+        Arrays.fill(keywordSlots, null);
         for (String keyword : keywords) {
-            addToken("KEYWORD_" + keyword.toUpperCase(), "\\b" + keyword + "\\b");
+            int slot = keywordSlot(keyword, 0, keyword.length(), seed);
+            if (keywordSlots[slot] != null) {
+                return false;
+            }
+            keywordSlots[slot] = keyword;
+            keywordTypes[slot] = "KEYWORD_" + keyword.toUpperCase();
         }
+        return true;
+    }
 
-        addToken("ID", ID);
+    private static int keywordSlot(CharSequence text, int start, int end, int seed) {
+        int h = end - start;
+        for (int i = start; i < end; i++) {
+            h = h * seed + text.charAt(i);
+        }
+        h ^= h >>> 16;
+        return (h * 0x9E3779B9 >>> 26) & (KEYWORD_SLOTS - 1);
     }
 
-    private static void addToken(String type, String regex) {
-        Pattern pattern = Pattern.compile("^" + regex);
-        tokenPatterns.add(pattern);
-        tokenTypes.put(pattern, type);
+    private static String keywordType(CharSequence text, int start, int end) {
+        int slot = keywordSlot(text, start, end, keywordSeed);
+        String keyword = keywordSlots[slot];
+        if (keyword == null || keyword.length() != end - start) {
+            return null;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (keyword.charAt(i) != text.charAt(start + i)) {
+                return null;
+            }
+        }
+        return keywordTypes[slot];
     }
 
-    public static List<String[]> tokenize(String text) {
+    public static List<String[]> tokenize(CharSequence text) {
         List<String[]> tokens = new ArrayList<>();
-        String remainingText = text.trim();
-
-        while (!remainingText.isEmpty()) {
-            boolean matched = false;
-
-            for (Pattern pattern : tokenPatterns) {
-                Matcher matcher = pattern.matcher(remainingText);
+        int[] type = new int[1];
+        int pos = 0;
+        int n = text.length();
 
-                if (matcher.find()) {
-                    String tokenValue = matcher.group();
-                    tokens.add(new String[]{tokenTypes.get(pattern), tokenValue});
-                    remainingText = remainingText.substring(tokenValue.length()).trim();
-                    matched = true;
-                    break;
-                }
+        while (true) {
+            while (pos < n && text.charAt(pos) <= ' ') {
+                pos++;
+            }
+            if (pos == n) {
+                break;
             }
 
-            if (!matched) {
-                System.err.println("Unknown token at: " + remainingText);
+            int end = LexerDFA.match(text, pos, type);
+            if (end < 0) {
+                System.err.println("Unknown token at: " + text.subSequence(pos, n).toString().trim());
                 break;
             }
+
+            String tokenType = LexerDFA.TYPES[type[0]];
+            if (type[0] == LexerDFA.ID) {
+                String keyword = keywordType(text, pos, end);
+                if (keyword != null) {
+                    tokenType = keyword;
+                }
+            }
+            tokens.add(new String[]{tokenType, text.subSequence(pos, end).toString()});
+            pos = end;
         }
 
         return tokens;
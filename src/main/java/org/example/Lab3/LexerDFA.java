@@ -0,0 +1,195 @@
+package org.example.Lab3;
+
+import java.util.*;
+
+/**
+ * The IPV4_ADDRESS, MAC_ADDRESS, STRING, NUMBER and ID token definitions compiled into one DFA.
+ * The definitions are written as one small NFA over seven character classes and determinized once, at
+ * class load. Scanning runs the DFA from a position and keeps the last accepting state, which gives the
+ * longest match; on equal length the token listed first wins, the same priority the regex list had.
+ */
+final class LexerDFA {
+    static final int DEAD = -1;
+    static final int NONE = -1;
+
+    // Token types in priority order
+    static final String[] TYPES = {"IPV4_ADDRESS", "MAC_ADDRESS", "STRING", "NUMBER", "ID"};
+    static final int IPV4 = 0;
+    static final int MAC = 1;
+    static final int STRING = 2;
+    static final int NUMBER = 3;
+    static final int ID = 4;
+
+    // Character classes
+    private static final int DIGIT = 0;
+    private static final int HEX_LETTER = 1;
+    private static final int LETTER = 2;
+    private static final int MINUS = 3;
+    private static final int DOT = 4;
+    private static final int QUOTE = 5;
+    private static final int OTHER = 6;
+    private static final int CLASSES = 7;
+
+    private static final byte[] CLASS_OF = new byte[128];
+
+    // NFA under construction: edges[state][class] is a bitmask of target states
+    private static final List<long[]> edges = new ArrayList<>();
+    private static final List<Integer> accepts = new ArrayList<>();
+
+    private static final int[] table;
+    private static final int[] acceptType;
+
+    static {
+        Arrays.fill(CLASS_OF, (byte) OTHER);
+        for (char c = '0'; c <= '9'; c++) CLASS_OF[c] = DIGIT;
+        for (char c = 'a'; c <= 'z'; c++) CLASS_OF[c] = (byte) (c <= 'f' ? HEX_LETTER : LETTER);
+        for (char c = 'A'; c <= 'Z'; c++) CLASS_OF[c] = (byte) (c <= 'F' ? HEX_LETTER : LETTER);
+        CLASS_OF['_'] = LETTER;
+        CLASS_OF['-'] = MINUS;
+        CLASS_OF['.'] = DOT;
+        CLASS_OF['"'] = QUOTE;
+
+        int start = newState(NONE);
+
+        // (?:\d{1,3}\.){3}\d{1,3}
+        int[] exits = {start};
+        for (int group = 0; group < 4; group++) {
+            exits = repeat(exits, DIGIT, 3, group == 3 ? IPV4 : NONE);
+            if (group < 3) {
+                exits = new int[]{step(exits, DOT, NONE)};
+            }
+        }
+
+        // [0-9A-Fa-f]{4}\.[0-9A-Fa-f]{4}\.[0-9A-Fa-f]{4}
+        int at = start;
+        for (int group = 0; group < 3; group++) {
+            for (int i = 0; i < 4; i++) {
+                at = stepAny(new int[]{at}, group == 2 && i == 3 ? MAC : NONE, DIGIT, HEX_LETTER);
+            }
+            if (group < 2) {
+                at = step(new int[]{at}, DOT, NONE);
+            }
+        }
+
+        // "[^"]*"
+        int body = step(new int[]{start}, QUOTE, NONE);
+        for (int c = 0; c < CLASSES; c++) {
+            if (c != QUOTE) edge(body, c, body);
+        }
+        step(new int[]{body}, QUOTE, STRING);
+
+        // \d+
+        int number = step(new int[]{start}, DIGIT, NUMBER);
+        edge(number, DIGIT, number);
+
+        // [a-zA-Z_][a-zA-Z0-9_-]*
+        int id = stepAny(new int[]{start}, ID, HEX_LETTER, LETTER);
+        for (int c : new int[]{DIGIT, HEX_LETTER, LETTER, MINUS}) {
+            edge(id, c, id);
+        }
+
+        // Subset construction; NFA state sets fit in one long
+        Map<Long, Integer> ids = new HashMap<>();
+        List<Long> sets = new ArrayList<>();
+        ids.put(1L << start, 0);
+        sets.add(1L << start);
+        List<Integer> rows = new ArrayList<>();
+        for (int d = 0; d < sets.size(); d++) {
+            long set = sets.get(d);
+            for (int c = 0; c < CLASSES; c++) {
+                long next = 0;
+                for (long bits = set; bits != 0; bits &= bits - 1) {
+                    next |= edges.get(Long.numberOfTrailingZeros(bits))[c];
+                }
+                if (next == 0) {
+                    rows.add(DEAD);
+                    continue;
+                }
+                Integer target = ids.get(next);
+                if (target == null) {
+                    target = sets.size();
+                    ids.put(next, target);
+                    sets.add(next);
+                }
+                rows.add(target);
+            }
+        }
+
+        table = rows.stream().mapToInt(Integer::intValue).toArray();
+        acceptType = new int[sets.size()];
+        for (int d = 0; d < sets.size(); d++) {
+            int best = NONE;
+            for (long bits = sets.get(d); bits != 0; bits &= bits - 1) {
+                int type = accepts.get(Long.numberOfTrailingZeros(bits));
+                if (type != NONE && (best == NONE || type < best)) best = type;
+            }
+            acceptType[d] = best;
+        }
+        edges.clear();
+        accepts.clear();
+    }
+
+    private LexerDFA() {
+    }
+
+    private static int newState(int accept) {
+        if (edges.size() == Long.SIZE) {
+            throw new IllegalStateException("Lexer NFA exceeds 64 states");
+        }
+        edges.add(new long[CLASSES]);
+        accepts.add(accept);
+        return edges.size() - 1;
+    }
+
+    private static void edge(int from, int cls, int to) {
+        edges.get(from)[cls] |= 1L << to;
+    }
+
+    // One new state reached from every state in froms on any of the given classes
+    private static int stepAny(int[] froms, int accept, int... classes) {
+        int to = newState(accept);
+        for (int from : froms) {
+            for (int c : classes) {
+                edge(from, c, to);
+            }
+        }
+        return to;
+    }
+
+    private static int step(int[] froms, int cls, int accept) {
+        return stepAny(froms, accept, cls);
+    }
+
+    // cls{1,max}; returns the states after 1..max repetitions
+    private static int[] repeat(int[] froms, int cls, int max, int accept) {
+        int[] exits = new int[max];
+        int[] current = froms;
+        for (int i = 0; i < max; i++) {
+            exits[i] = step(current, cls, accept);
+            current = new int[]{exits[i]};
+        }
+        return exits;
+    }
+
+    static int classOf(char c) {
+        return c < 128 ? CLASS_OF[c] : OTHER;
+    }
+
+    /**
+     * Longest token starting at {@code from}: returns its end offset and stores its type in {@code type[0]},
+     * or returns -1 if no token starts there.
+     */
+    static int match(CharSequence text, int from, int[] type) {
+        int state = 0;
+        int end = -1;
+        for (int i = from, n = text.length(); i < n; i++) {
+            state = table[state * CLASSES + classOf(text.charAt(i))];
+            if (state == DEAD) break;
+            if (acceptType[state] != NONE) {
+                end = i + 1;
+                type[0] = acceptType[state];
+            }
+        }
+        return end;
+    }
+}
@@ -5,11 +5,17 @@ import java.util.*;
 public class ASTNode {
     public final String type;
     public final String value;
-    public final List<ASTNode> children = new ArrayList<>();
+    public final List<ASTNode> children;
 
     public ASTNode(String type, String value) {
+        this(type, value, new ArrayList<>());
+    }
+
+    // Node over a child list maintained elsewhere, e.g. by IncrementalParser
+    ASTNode(String type, String value, List<ASTNode> children) {
         this.type = type;
         this.value = value;
+        this.children = children;
     }
 
     public void addChild(ASTNode child) {
@@ -0,0 +1,110 @@
+package org.example.Lab6;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Device blocks of an incrementally parsed document with their start offsets, kept as a gap buffer at the
+ * last edit. Starts after the gap are stored relative to the end of the text, so an edit shifts none of the
+ * blocks behind it, and replacing blocks only moves the ones between this edit and the previous one.
+ * As a list it is the read-only children of the document's root.
+ */
+final class BlockList extends AbstractList<ASTNode> {
+    private static final int MIN_GAP = 16;
+
+    private ASTNode[] nodes = new ASTNode[MIN_GAP];
+    private int[] starts = new int[MIN_GAP];
+    private int gapStart;
+    private int gapEnd = MIN_GAP;
+    // Length of the text the starts refer to
+    private int textLength;
+
+    @Override
+    public ASTNode get(int index) {
+        Objects.checkIndex(index, size());
+        return nodes[index < gapStart ? index : index + gapEnd - gapStart];
+    }
+
+    @Override
+    public int size() {
+        return nodes.length - (gapEnd - gapStart);
+    }
+
+    int start(int index) {
+        return index < gapStart ? starts[index] : starts[index + gapEnd - gapStart] + textLength;
+    }
+
+    // Number of blocks starting below offset
+    int lowerBound(int offset) {
+        int lo = 0;
+        int hi = size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start(mid) < offset) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Index of the block starting at offset, or -1
+    int blockAt(int offset) {
+        int index = lowerBound(offset);
+        return index < size() && start(index) == offset ? index : -1;
+    }
+
+    // Replaces blocks [first, last) with count added ones; the blocks from last on keep their distance to the
+    // end of the text, which is now textLength characters long
+    void replace(int first, int last, List<ASTNode> added, int[] addedStarts, int count, int textLength) {
+        moveGap(last);
+        Arrays.fill(nodes, first, last, null);
+        gapStart = first;
+        if (gapEnd - gapStart < count) {
+            int tail = nodes.length - gapEnd;
+            int length = Math.max(nodes.length * 2, gapStart + count + tail + MIN_GAP);
+            ASTNode[] grownNodes = new ASTNode[length];
+            int[] grownStarts = new int[length];
+            System.arraycopy(nodes, 0, grownNodes, 0, gapStart);
+            System.arraycopy(starts, 0, grownStarts, 0, gapStart);
+            System.arraycopy(nodes, gapEnd, grownNodes, length - tail, tail);
+            System.arraycopy(starts, gapEnd, grownStarts, length - tail, tail);
+            nodes = grownNodes;
+            starts = grownStarts;
+            gapEnd = length - tail;
+        }
+        for (int i = 0; i < count; i++) {
+            nodes[gapStart] = added.get(i);
+            starts[gapStart++] = addedStarts[i];
+        }
+        this.textLength = textLength;
+    }
+
+    // Moved blocks switch between absolute and end-relative starts
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            for (int i = index; i < gapStart; i++) {
+                starts[i] -= textLength;
+            }
+            System.arraycopy(nodes, index, nodes, gapEnd - count, count);
+            System.arraycopy(starts, index, starts, gapEnd - count, count);
+            Arrays.fill(nodes, index, Math.min(gapStart, gapEnd - count), null);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            for (int i = gapEnd; i < gapEnd + count; i++) {
+                starts[i] += textLength;
+            }
+            System.arraycopy(nodes, gapEnd, nodes, gapStart, count);
+            System.arraycopy(starts, gapEnd, starts, gapStart, count);
+            Arrays.fill(nodes, Math.max(gapEnd, gapStart + count), gapEnd + count, null);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package org.example.Lab6;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.regex.*;
 
@@ -16,36 +19,82 @@ public class DSLTokenizer {
     }
 
     private static void addToken(TokenType type, String regex) {
-        Pattern pattern = Pattern.compile("^" + regex);
+        Pattern pattern = Pattern.compile(regex);
         tokenPatterns.add(pattern);
         tokenTypes.put(pattern, type);
     }
 
-    public static List<Token> tokenize(String input) {
-        List<Token> tokens = new ArrayList<>();
-        String remaining = input.trim();
-
-        while (!remaining.isEmpty()) {
-            boolean matched = false;
-
-            for (Pattern pattern : tokenPatterns) {
-                Matcher matcher = pattern.matcher(remaining);
-                if (matcher.find()) {
-                    String value = matcher.group();
-                    tokens.add(new Token(tokenTypes.get(pattern), value));
-                    remaining = remaining.substring(value.length()).trim();
-                    matched = true;
-                    break;
-                }
-            }
+    static int patternCount() {
+        return tokenPatterns.size();
+    }
+
+    static Pattern pattern(int index) {
+        return tokenPatterns.get(index);
+    }
+
+    static TokenType typeOf(int index) {
+        return tokenTypes.get(tokenPatterns.get(index));
+    }
 
-            if (!matched) {
-                tokens.add(new Token(TokenType.UNKNOWN, remaining.substring(0, 1)));
-                remaining = remaining.substring(1).trim();
+    // Whether the whole value matches the pattern of its type; types without one always match
+    static boolean matches(TokenType type, CharSequence value) {
+        for (Pattern pattern : tokenPatterns) {
+            if (tokenTypes.get(pattern) == type) {
+                return pattern.matcher(value).matches();
             }
         }
+        return true;
+    }
+
+    // Tokens are read from the reader on demand, through a fixed-size buffer
+    public static TokenStream stream(Reader reader) {
+        return new ReaderTokenStream(reader);
+    }
+
+    // Scans the file through a memory mapping, as bytes; token values are decoded lazily
+    public static TokenStream stream(Path path) throws IOException {
+        return new MappedTokenStream(MappedInput.map(path));
+    }
+
+    // Tokenizes the whole input into a compact buffer instead of a list of objects
+    public static TokenBuffer buffer(CharSequence input) {
+        String text = input.toString();
+        return buffer(text, 0, text.length());
+    }
+
+    // Tokens of text[from, to) only, with offsets into the whole text
+    static TokenBuffer buffer(String text, int from, int to) {
+        TokenBuffer buffer = new TokenBuffer(TokenSource.of(text));
+        scan(text, from, to, (type, start, end) -> buffer.add(type, start, end, Literals.decode(type, text, start, end)));
+        return buffer;
+    }
+
+    public static TokenBuffer buffer(Path path) throws IOException {
+        MappedInput input = MappedInput.map(path);
+        TokenBuffer buffer = new TokenBuffer(input);
+        MappedTokenStream scanner = new MappedTokenStream(input);
+        while (scanner.advance()) {
+            buffer.add(scanner.type, scanner.start, scanner.end(), scanner.decoded);
+        }
+        return buffer;
+    }
 
+    public static List<Token> tokenize(CharSequence input) {
+        List<Token> tokens = new ArrayList<>();
+        scan(input, 0, input.length(), (type, start, end) ->
+                tokens.add(new Token(type, input.subSequence(start, end).toString(), start, end,
+                        Literals.decode(type, input, start, end))));
         return tokens;
     }
-}
 
+    private interface TokenSink {
+        void add(TokenType type, int start, int end);
+    }
+
+    private static void scan(CharSequence input, int from, int to, TokenSink sink) {
+        TextTokenStream scanner = new TextTokenStream(input, from, to);
+        while (scanner.advance()) {
+            sink.add(scanner.type, scanner.start, scanner.end());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.Lab6;
+
+/**
+ * Editable text kept as a gap buffer: the free space sits at the last edit, so a run of nearby edits
+ * only moves the characters between them instead of the rest of the document.
+ */
+final class GapText implements CharSequence {
+    private static final int MIN_GAP = 1024;
+
+    private char[] chars;
+    private int gapStart;
+    private int gapEnd;
+
+    GapText(CharSequence text) {
+        chars = new char[text.length() + MIN_GAP];
+        for (int i = 0; i < text.length(); i++) {
+            chars[i] = text.charAt(i);
+        }
+        gapStart = text.length();
+        gapEnd = chars.length;
+    }
+
+    @Override
+    public int length() {
+        return chars.length - (gapEnd - gapStart);
+    }
+
+    @Override
+    public char charAt(int index) {
+        return index < gapStart ? chars[index] : chars[index + gapEnd - gapStart];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            sb.append(charAt(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length()).toString();
+    }
+
+    void replace(int offset, int removed, CharSequence inserted) {
+        moveGap(offset);
+        gapEnd += removed;
+        int needed = inserted.length();
+        if (gapEnd - gapStart < needed) {
+            int length = length();
+            char[] grown = new char[Math.max(chars.length * 2, length + needed + MIN_GAP)];
+            int tail = chars.length - gapEnd;
+            System.arraycopy(chars, 0, grown, 0, gapStart);
+            System.arraycopy(chars, gapEnd, grown, grown.length - tail, tail);
+            chars = grown;
+            gapEnd = grown.length - tail;
+        }
+        for (int i = 0; i < needed; i++) {
+            chars[gapStart++] = inserted.charAt(i);
+        }
+    }
+
+    private void moveGap(int offset) {
+        if (offset < gapStart) {
+            int count = gapStart - offset;
+            System.arraycopy(chars, offset, chars, gapEnd - count, count);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (offset > gapStart) {
+            int count = offset - gapStart;
+            System.arraycopy(chars, gapEnd, chars, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.Lab6;
+
+import java.util.*;
+
+/**
+ * Keeps the AST of an editable document current. An edit re-lexes from the last Device block that cannot have
+ * changed and re-parses only until the new tokens fall back onto the start of an old block after the edit;
+ * that works because a token depends only on the text from its start onward. Blocks outside that span keep
+ * their ASTNode subtrees, and the blocks behind the edit are not touched at all (see {@link BlockList}), so
+ * the cost follows the size of the edit and its distance to the previous one rather than the document.
+ */
+public class IncrementalParser {
+    // Lexing a "device" token looks at the six letters and the character after them
+    private static final int DEVICE_LOOKAHEAD = 7;
+
+    private final GapText text;
+    // The Device children of root with their start offsets
+    private final BlockList blocks = new BlockList();
+    private final ASTNode root = new ASTNode("Program", "", blocks);
+    // A quote that never closes is an UNKNOWN token whose lexing looked at the whole rest of the text
+    private int unpairedQuote = -1;
+
+    private int[] parsedStarts = new int[16];
+    private int parsedCount;
+
+    public IncrementalParser(CharSequence text) {
+        this.text = new GapText(text);
+        reparse(0, 0, 0, 0);
+    }
+
+    /**
+     * The current AST as a read-only view. The root's children are the live {@link BlockList}, which rejects
+     * changes, and the Device subtrees are reused by later parses, so they must not be modified either. Each
+     * edit updates the root in place and swaps out the subtrees it re-parsed; copy the tree to keep a snapshot.
+     */
+    public ASTNode ast() {
+        return root;
+    }
+
+    public CharSequence text() {
+        return text;
+    }
+
+    // Replaces removed characters at offset with inserted, updating and returning the AST (see ast())
+    public ASTNode edit(int offset, int removed, CharSequence inserted) {
+        if (offset < 0 || removed < 0 || offset + removed > text.length()) {
+            throw new IndexOutOfBoundsException("Edit [" + offset + ", " + (offset + removed) + ") out of "
+                    + text.length() + " characters");
+        }
+        // Blocks starting before bound lex and parse exactly as before
+        int bound = offset - DEVICE_LOOKAHEAD;
+        if (unpairedQuote >= 0 && unpairedQuote < offset) {
+            bound = Math.min(bound, unpairedQuote + 1);
+        }
+        int first = Math.max(0, blocks.lowerBound(bound) - 1);
+        int from = first < blocks.size() && blocks.start(first) < bound ? blocks.start(first) : 0;
+        if (from == 0) {
+            first = 0;
+        }
+
+        text.replace(offset, removed, inserted);
+        reparse(from, first, inserted.length() - removed, offset + inserted.length());
+        return root;
+    }
+
+    // Parses from offset from, replacing blocks [first, j) where j is the old block the new tokens fall back onto.
+    // Until then blocks still hold the starts from before the edit.
+    private void reparse(int from, int first, int delta, int editEnd) {
+        int[] quote = {-1};
+        TextTokenStream lexer = new TextTokenStream(text, from, text.length());
+        TokenStream tokens = new TokenStream() {
+            @Override
+            public Token peek() {
+                return lexer.peek();
+            }
+
+            @Override
+            public Token next() {
+                Token token = lexer.next();
+                if (token != null && token.type == TokenType.UNKNOWN && token.valueEquals("\"")) {
+                    quote[0] = (int) token.start;
+                }
+                return token;
+            }
+        };
+
+        ASTNode parsed = new ASTNode("Program", "");
+        parsedCount = 0;
+        long resume = new Parser(tokens).parseDevices(parsed, this::addParsedStart,
+                start -> start >= editEnd && blocks.blockAt((int) (start - delta)) >= 0);
+        int j = resume < 0 ? blocks.size() : blocks.blockAt((int) (resume - delta));
+
+        if (quote[0] >= 0) {
+            unpairedQuote = quote[0];
+        } else if (resume >= 0 && unpairedQuote >= resume - delta) {
+            unpairedQuote += delta;
+        } else {
+            unpairedQuote = -1;
+        }
+
+        blocks.replace(first, j, parsed.children, parsedStarts, parsedCount, text.length());
+    }
+
+    private void addParsedStart(long start) {
+        if (parsedCount == parsedStarts.length) {
+            parsedStarts = Arrays.copyOf(parsedStarts, parsedCount * 2);
+        }
+        parsedStarts[parsedCount++] = (int) start;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.Lab6;
+
+/**
+ * Decodes IPv4 addresses, MAC addresses and numbers into primitives once, when they are lexed.
+ * Every valid value is non-negative: an IPv4 address is its 32 bits read as unsigned, a MAC address its
+ * 48 bits. {@link #NONE} marks tokens without one, including octets above 255 and numbers that overflow.
+ */
+final class Literals {
+    static final long NONE = -1;
+
+    private Literals() {
+    }
+
+    static long decode(TokenType type, CharSequence text, int start, int end) {
+        if (type == TokenType.IPV4_ADDRESS) {
+            return ipv4(text, start, end);
+        }
+        if (type == TokenType.MAC_ADDRESS) {
+            return mac(text, start, end);
+        }
+        if (type == TokenType.NUMBER) {
+            return number(text, start, end);
+        }
+        return NONE;
+    }
+
+    private static long ipv4(CharSequence text, int start, int end) {
+        long address = 0;
+        int octet = 0;
+        for (int i = start; i <= end; i++) {
+            if (i == end || text.charAt(i) == '.') {
+                if (octet > 255) {
+                    return NONE;
+                }
+                address = address << 8 | octet;
+                octet = 0;
+            } else {
+                octet = octet * 10 + text.charAt(i) - '0';
+            }
+        }
+        return address;
+    }
+
+    private static long mac(CharSequence text, int start, int end) {
+        long address = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c != '.') {
+                address = address << 4 | Character.digit(c, 16);
+            }
+        }
+        return address;
+    }
+
+    private static long number(CharSequence text, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = appendDigit(value, text.charAt(i));
+            if (value == NONE) {
+                return NONE;
+            }
+        }
+        return value;
+    }
+
+    // value * 10 + digit, or NONE on overflow
+    static long appendDigit(long value, int digit) {
+        int d = digit - '0';
+        if (value > (Long.MAX_VALUE - d) / 10) {
+            return NONE;
+        }
+        return value * 10 + d;
+    }
+
+    static IllegalStateException noValue(TokenType expected, TokenType actual) {
+        return new IllegalStateException(actual == expected
+                ? expected + " token is out of range"
+                : "Expected " + expected + " token, got " + actual);
+    }
+}
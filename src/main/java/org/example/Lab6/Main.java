@@ -1,14 +1,21 @@
 package org.example.Lab6;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.util.*;
 
 public class Main {
+    // Parses the sample file, the file given as the first argument, or standard input for "-"
     public static void main(String[] args) throws IOException {
-        String input = Files.readString(Path.of("src/main/java/org/example/Lab6/SampleInput.txt"));
-        List<Token> tokens = DSLTokenizer.tokenize(input);
-        Parser parser = new Parser(tokens);
+        String file = args.length > 0 ? args[0] : "src/main/java/org/example/Lab6/SampleInput.txt";
+        if (file.equals("-")) {
+            try (Reader reader = new InputStreamReader(System.in, StandardCharsets.UTF_8)) {
+                ASTPrinter.print(new Parser(DSLTokenizer.stream(reader)).parse());
+            }
+            return;
+        }
+        // Files are mapped and scanned as bytes rather than decoded up front
+        Parser parser = new Parser(DSLTokenizer.stream(Path.of(file)));
         ASTNode ast = parser.parse();
         ASTPrinter.print(ast);
     }
@@ -0,0 +1,85 @@
+package org.example.Lab6;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file memory-mapped in windows of up to 1 GB, so inputs larger than 2 GB are addressed by long offsets.
+ * The mapping stays valid after the channel is closed and lives as long as the tokens that reference it.
+ * Windowed MappedByteBuffers are what the other mapped readers in this project use; one MemorySegment
+ * would need no windows, but would be the only foreign-memory code here.
+ */
+final class MappedInput implements TokenSource {
+    private static final int WINDOW_SHIFT = 30;
+    private static final long WINDOW_MASK = (1L << WINDOW_SHIFT) - 1;
+
+    private final MappedByteBuffer[] windows;
+    final long size;
+
+    private MappedInput(MappedByteBuffer[] windows, long size) {
+        this.windows = windows;
+        this.size = size;
+    }
+
+    static MappedInput map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer[] windows = new MappedByteBuffer[(int) ((size + WINDOW_MASK) >>> WINDOW_SHIFT)];
+            for (int w = 0; w < windows.length; w++) {
+                long offset = (long) w << WINDOW_SHIFT;
+                windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(size - offset, 1L << WINDOW_SHIFT));
+            }
+            return new MappedInput(windows, size);
+        }
+    }
+
+    int byteAt(long position) {
+        return windows[(int) (position >>> WINDOW_SHIFT)].get((int) (position & WINDOW_MASK)) & 0xFF;
+    }
+
+    @Override
+    public String decode(long start, long end) {
+        if (end - start > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Token too long to materialize: " + (end - start) + " bytes");
+        }
+        byte[] bytes = new byte[(int) (end - start)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) byteAt(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean regionEquals(long start, long end, String other) {
+        for (int i = 0; i < other.length(); i++) {
+            if (other.charAt(i) >= 0x80) {
+                return regionEquals(start, end, other.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        if (end - start != other.length()) {
+            return false;
+        }
+        for (int i = 0; i < other.length(); i++) {
+            if (byteAt(start + i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean regionEquals(long start, long end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (byteAt(start + i) != (expected[i] & 0xFF)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
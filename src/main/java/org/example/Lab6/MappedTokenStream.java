@@ -0,0 +1,208 @@
+package org.example.Lab6;
+
+/**
+ * Tokenizes a memory-mapped file directly as bytes, with no decoding pass and no copy of the input.
+ * The scanner is a hand-written equivalent of the {@link DSLTokenizer} patterns, tried in the same order.
+ * Tokens carry byte offsets; their values are decoded as UTF-8 only when read, while IPv4, MAC and NUMBER
+ * values are accumulated into primitives during the same scan. A non-ASCII character that
+ * starts no token becomes one UNKNOWN token.
+ */
+class MappedTokenStream implements TokenStream {
+    private final MappedInput input;
+    private final long limit;
+    private long pos;
+    private Token peeked;
+    // The token found by the last advance()
+    TokenType type;
+    long start;
+    long decoded;
+
+    MappedTokenStream(MappedInput input) {
+        this(input, 0, input.size);
+    }
+
+    // Scans only [from, to); offsets stay relative to the whole input
+    MappedTokenStream(MappedInput input, long from, long to) {
+        this.input = input;
+        this.pos = from;
+        this.limit = to;
+    }
+
+    @Override
+    public Token peek() {
+        if (peeked == null) {
+            peeked = read();
+        }
+        return peeked;
+    }
+
+    @Override
+    public Token next() {
+        Token token = peek();
+        peeked = null;
+        return token;
+    }
+
+    private Token read() {
+        return advance() ? new Token(type, input, start, pos, decoded) : null;
+    }
+
+    // Scans the next token into type, start, pos (its end) and decoded; false at the end of input
+    boolean advance() {
+        while (pos < limit && input.byteAt(pos) <= ' ') {
+            pos++;
+        }
+        if (pos == limit) {
+            return false;
+        }
+
+        start = pos;
+        decoded = Literals.NONE;
+        long end;
+        if ((end = ipv4(start)) > 0) {
+            type = TokenType.IPV4_ADDRESS;
+        } else if ((end = mac(start)) > 0) {
+            type = TokenType.MAC_ADDRESS;
+        } else if ((end = string(start)) > 0) {
+            type = TokenType.STRING;
+        } else if ((end = number(start)) > 0) {
+            type = TokenType.NUMBER;
+        } else if ((end = id(start)) > 0) {
+            type = TokenType.ID;
+        } else {
+            end = unknownEnd(start);
+            type = TokenType.UNKNOWN;
+        }
+        pos = end;
+        return true;
+    }
+
+    long end() {
+        return pos;
+    }
+
+    // (?:\d{1,3}\.){3}\d{1,3}
+    private long ipv4(long p) {
+        long address = 0;
+        boolean valid = true;
+        for (int group = 0; group < 4; group++) {
+            int digits = 0;
+            int octet = 0;
+            int b;
+            while (digits < 3 && p < limit && isDigit(b = input.byteAt(p))) {
+                octet = octet * 10 + b - '0';
+                p++;
+                digits++;
+            }
+            if (digits == 0) {
+                return -1;
+            }
+            valid &= octet <= 255;
+            address = address << 8 | octet;
+            if (group < 3) {
+                if (p == limit || input.byteAt(p) != '.') {
+                    return -1;
+                }
+                p++;
+            }
+        }
+        decoded = valid ? address : Literals.NONE;
+        return p;
+    }
+
+    // [0-9A-Fa-f]{4}\.[0-9A-Fa-f]{4}\.[0-9A-Fa-f]{4}
+    private long mac(long p) {
+        if (p + 14 > limit) {
+            return -1;
+        }
+        long address = 0;
+        for (int i = 0; i < 14; i++) {
+            int b = input.byteAt(p + i);
+            if (i == 4 || i == 9) {
+                if (b != '.') {
+                    return -1;
+                }
+            } else if (isHex(b)) {
+                address = address << 4 | Character.digit(b, 16);
+            } else {
+                return -1;
+            }
+        }
+        decoded = address;
+        return p + 14;
+    }
+
+    // "[^"]*"
+    private long string(long p) {
+        if (input.byteAt(p) != '"') {
+            return -1;
+        }
+        for (long i = p + 1; i < limit; i++) {
+            if (input.byteAt(i) == '"') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    // \d+
+    private long number(long p) {
+        long i = p;
+        long value = 0;
+        int b;
+        while (i < limit && isDigit(b = input.byteAt(i))) {
+            if (value != Literals.NONE) {
+                value = Literals.appendDigit(value, b);
+            }
+            i++;
+        }
+        if (i == p) {
+            return -1;
+        }
+        decoded = value;
+        return i;
+    }
+
+    // [a-zA-Z_][a-zA-Z0-9_-]*
+    private long id(long p) {
+        int b = input.byteAt(p);
+        if (!isLetter(b)) {
+            return -1;
+        }
+        long i = p + 1;
+        while (i < limit && (isLetter(b = input.byteAt(i)) || isDigit(b) || b == '-')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(int b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isHex(int b) {
+        return isDigit(b) || (b >= 'a' && b <= 'f') || (b >= 'A' && b <= 'F');
+    }
+
+    private static boolean isLetter(int b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || b == '_';
+    }
+
+    // A lead byte and the continuation bytes after it, so a malformed sequence never swallows an ASCII byte
+    private long unknownEnd(long p) {
+        long end = p + 1;
+        long max = p + sequenceLength(input.byteAt(p));
+        while (end < max && end < limit && (input.byteAt(end) & 0xC0) == 0x80) {
+            end++;
+        }
+        return end;
+    }
+
+    // Bytes in the UTF-8 sequence that starts with lead
+    private static int sequenceLength(int lead) {
+        if (lead >= 0xF0 && lead <= 0xF7) return 4;
+        if (lead >= 0xE0) return lead <= 0xEF ? 3 : 1;
+        if (lead >= 0xC0) return 2;
+        return 1;
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.Lab6;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses an inventory on a fork-join pool by cutting it at device boundaries found in the raw input.
+ * Quotes always pair up in order (no other token contains one), so a parallel count of quotes per block
+ * tells whether any position lies inside a string. A "device" outside a string and after whitespace is
+ * always a token start, and unless the token before it is also "device" (which would take it as its name)
+ * the sequential parser starts a new block there. Each chunk can therefore be tokenized and parsed on its
+ * own; the Device subtrees are stitched back in source order.
+ */
+class ParallelParser {
+    private static final long MIN_BLOCK_SIZE = 1 << 20;
+    private static final String DEVICE = "device";
+
+    interface Input {
+        long length();
+
+        int at(long position);
+
+        ASTNode parse(long from, long to);
+    }
+
+    static ASTNode parse(Input input, ForkJoinPool pool) {
+        return parse(input, pool, MIN_BLOCK_SIZE);
+    }
+
+    // Smaller minimum blocks put split points into small inputs, which tests rely on
+    static ASTNode parse(Input input, ForkJoinPool pool, long minBlockSize) {
+        long n = input.length();
+        long blockSize = Math.max(minBlockSize, n / (pool.getParallelism() * 4L));
+        int blocks = (int) ((n + blockSize - 1) / blockSize);
+        if (blocks <= 1) {
+            return input.parse(0, n);
+        }
+
+        List<ForkJoinTask<Long>> quotes = new ArrayList<>();
+        for (int b = 0; b < blocks; b++) {
+            long from = b * blockSize;
+            long to = Math.min(n, from + blockSize);
+            quotes.add(pool.submit(() -> countQuotes(input, from, to)));
+        }
+
+        // A block's first split point, if it has one
+        List<ForkJoinTask<Long>> splits = new ArrayList<>();
+        long quotesBefore = 0;
+        for (int b = 1; b < blocks; b++) {
+            quotesBefore += quotes.get(b - 1).join();
+            long from = b * blockSize;
+            long to = Math.min(n, from + blockSize);
+            boolean inString = (quotesBefore & 1) != 0;
+            splits.add(pool.submit(() -> firstSplit(input, from, to, inString)));
+        }
+
+        List<ForkJoinTask<ASTNode>> parts = new ArrayList<>();
+        long start = 0;
+        for (ForkJoinTask<Long> split : splits) {
+            long end = split.join();
+            if (end >= 0) {
+                long from = start;
+                parts.add(pool.submit(() -> input.parse(from, end)));
+                start = end;
+            }
+        }
+        long last = start;
+        parts.add(pool.submit(() -> input.parse(last, n)));
+
+        ASTNode root = new ASTNode("Program", "");
+        for (ForkJoinTask<ASTNode> part : parts) {
+            for (ASTNode device : part.join().children) {
+                root.addChild(device);
+            }
+        }
+        return root;
+    }
+
+    private static long countQuotes(Input input, long from, long to) {
+        long count = 0;
+        for (long p = from; p < to; p++) {
+            if (input.at(p) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long firstSplit(Input input, long from, long to, boolean inString) {
+        for (long p = from; p < to; p++) {
+            int c = input.at(p);
+            if (c == '"') {
+                inString = !inString;
+            } else if (c == 'd' && !inString && isDeviceToken(input, p)) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDeviceToken(Input input, long p) {
+        if (p > 0 && input.at(p - 1) > ' ') {
+            return false;
+        }
+        if (followsDevice(input, p)) {
+            return false;
+        }
+        long end = p + DEVICE.length();
+        if (end > input.length()) {
+            return false;
+        }
+        for (int i = 1; i < DEVICE.length(); i++) {
+            if (input.at(p + i) != DEVICE.charAt(i)) {
+                return false;
+            }
+        }
+        if (end == input.length()) {
+            return true;
+        }
+        int next = input.at(end);
+        return !((next >= 'a' && next <= 'z') || (next >= 'A' && next <= 'Z') || (next >= '0' && next <= '9')
+                || next == '_' || next == '-');
+    }
+
+    // Whether the text before p, ignoring whitespace, ends in "device"; errs on the side of true
+    private static boolean followsDevice(Input input, long p) {
+        long q = p - 1;
+        while (q >= 0 && input.at(q) <= ' ') {
+            q--;
+        }
+        if (q + 1 < DEVICE.length()) {
+            return false;
+        }
+        for (int i = 0; i < DEVICE.length(); i++) {
+            if (input.at(q - DEVICE.length() + 1 + i) != DEVICE.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static Input of(MappedInput input) {
+        return new Input() {
+            @Override
+            public long length() {
+                return input.size;
+            }
+
+            @Override
+            public int at(long position) {
+                return input.byteAt(position);
+            }
+
+            @Override
+            public ASTNode parse(long from, long to) {
+                return new Parser(new MappedTokenStream(input, from, to)).parse();
+            }
+        };
+    }
+
+    static Input of(String text) {
+        return new Input() {
+            @Override
+            public long length() {
+                return text.length();
+            }
+
+            @Override
+            public int at(long position) {
+                return text.charAt((int) position);
+            }
+
+            @Override
+            public ASTNode parse(long from, long to) {
+                return new Parser(DSLTokenizer.buffer(text, (int) from, (int) to)).parse();
+            }
+        };
+    }
+}
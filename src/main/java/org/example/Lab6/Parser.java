@@ -1,52 +1,120 @@
 package org.example.Lab6;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
 
 public class Parser {
-    private final List<Token> tokens;
+    // Exactly one of the two is set
+    private final TokenStream tokens;
+    private final TokenBuffer buffer;
     private int position = 0;
 
     public Parser(List<Token> tokens) {
+        this(TokenStream.of(tokens));
+    }
+
+    // Tokens are pulled from the stream as parsing proceeds
+    public Parser(TokenStream tokens) {
         this.tokens = tokens;
+        this.buffer = null;
+    }
+
+    // Walks the buffer by index without creating Token objects
+    public Parser(TokenBuffer buffer) {
+        this.tokens = null;
+        this.buffer = buffer;
+    }
+
+    // Tokenizes and parses independent device blocks of the file in parallel
+    public static ASTNode parseParallel(Path path) throws IOException {
+        return parseParallel(path, ForkJoinPool.commonPool());
+    }
+
+    public static ASTNode parseParallel(Path path, ForkJoinPool pool) throws IOException {
+        return ParallelParser.parse(ParallelParser.of(MappedInput.map(path)), pool);
+    }
+
+    public static ASTNode parseParallel(CharSequence input) {
+        return parseParallel(input, ForkJoinPool.commonPool());
+    }
+
+    public static ASTNode parseParallel(CharSequence input, ForkJoinPool pool) {
+        return ParallelParser.parse(ParallelParser.of(input.toString()), pool);
     }
 
     public ASTNode parse() {
         ASTNode root = new ASTNode("Program", "");
-        while (position < tokens.size()) {
-            Token token = tokens.get(position);
-            if (token.value.equals("device")) {
+        parseDevices(root, start -> { }, start -> false);
+        return root;
+    }
+
+    // Adds device blocks to root and reports where each one starts. Stops before the first block whose start
+    // offset satisfies stop and returns that offset, or -1 at the end of input
+    long parseDevices(ASTNode root, LongConsumer starts, LongPredicate stop) {
+        while (!atEnd()) {
+            if (atDevice()) {
+                long start = offset();
+                if (stop.test(start)) {
+                    return start;
+                }
+                starts.accept(start);
                 root.addChild(parseDevice());
             } else {
-                position++;
+                skip();
             }
         }
-        return root;
+        return -1;
     }
 
     private ASTNode parseDevice() {
         ASTNode device = new ASTNode("Device", "");
-        position++; // skip "device"
+        skip(); // skip "device"
 
         if (match(TokenType.ID)) {
-            device.addChild(new ASTNode("Name", consume().value));
+            device.addChild(new ASTNode("Name", consume()));
         }
 
-        while (position < tokens.size() && !tokens.get(position).value.equals("device")) {
+        while (!atEnd() && !atDevice()) {
             if (match(TokenType.ID)) {
-                device.addChild(new ASTNode("Property", consume().value));
+                device.addChild(new ASTNode("Property", consume()));
             } else {
-                position++;
+                skip();
             }
         }
 
         return device;
     }
 
+    private boolean atEnd() {
+        return buffer != null ? position >= buffer.size() : tokens.peek() == null;
+    }
+
+    private boolean atDevice() {
+        return buffer != null ? buffer.valueEquals(position, "device") : tokens.peek().valueEquals("device");
+    }
+
+    private long offset() {
+        return buffer != null ? buffer.start(position) : tokens.peek().start;
+    }
+
     private boolean match(TokenType expected) {
-        return position < tokens.size() && tokens.get(position).type == expected;
+        return !atEnd() && (buffer != null ? buffer.type(position) : tokens.peek().type) == expected;
+    }
+
+    private void skip() {
+        if (buffer != null) {
+            position++;
+        } else {
+            tokens.next();
+        }
     }
 
-    private Token consume() {
-        return tokens.get(position++);
+    // Value of the current token, moving past it
+    private String consume() {
+        return buffer != null ? buffer.value(position++) : tokens.next().value();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package org.example.Lab6;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+
+/**
+ * Tokenizes a Reader through a fixed-size sliding buffer, producing tokens only as the parser asks for them.
+ * A pattern that runs into the end of the buffer ({@link Matcher#hitEnd()}) could match differently with
+ * more input, so the window is compacted and refilled before deciding. The buffer only grows when a single
+ * token is longer than it.
+ */
+class ReaderTokenStream implements TokenStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private char[] buffer = new char[BUFFER_SIZE];
+    private Matcher[] matchers;
+    private int pos = 0;
+    private int limit = 0;
+    // Offset of buffer[0] in the whole input
+    private long base = 0;
+    private boolean eof = false;
+    private Token peeked;
+
+    ReaderTokenStream(Reader reader) {
+        this.reader = reader;
+        createMatchers();
+    }
+
+    @Override
+    public Token peek() {
+        if (peeked == null) {
+            peeked = read();
+        }
+        return peeked;
+    }
+
+    @Override
+    public Token next() {
+        Token token = peek();
+        peeked = null;
+        return token;
+    }
+
+    private Token read() {
+        try {
+            while (true) {
+                while (true) {
+                    while (pos < limit && buffer[pos] <= ' ') {
+                        pos++;
+                    }
+                    if (pos < limit || !fill()) break;
+                }
+                if (pos == limit) {
+                    return null;
+                }
+
+                boolean needMore = false;
+                for (int i = 0; i < matchers.length; i++) {
+                    Matcher matcher = matchers[i];
+                    matcher.region(pos, limit);
+                    boolean found = matcher.lookingAt();
+                    if (matcher.hitEnd() && !eof) {
+                        needMore = true;
+                        break;
+                    }
+                    if (found) {
+                        TokenType type = DSLTokenizer.typeOf(i);
+                        String value = new String(buffer, pos, matcher.end() - pos);
+                        Token token = new Token(type, value, base + pos, base + matcher.end(),
+                                Literals.decode(type, value, 0, value.length()));
+                        pos = matcher.end();
+                        return token;
+                    }
+                }
+                if (needMore) {
+                    fill();
+                    continue;
+                }
+
+                pos++;
+                return new Token(TokenType.UNKNOWN, String.valueOf(buffer[pos - 1]), base + pos - 1, base + pos,
+                        Literals.NONE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Moves the unread part to the front and reads more; false once the reader is exhausted
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            base += pos;
+            pos = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            createMatchers();
+        }
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private void createMatchers() {
+        CharBuffer view = CharBuffer.wrap(buffer);
+        matchers = new Matcher[DSLTokenizer.patternCount()];
+        for (int i = 0; i < matchers.length; i++) {
+            matchers[i] = DSLTokenizer.pattern(i).matcher(view);
+        }
+    }
+}
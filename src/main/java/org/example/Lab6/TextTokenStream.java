@@ -0,0 +1,74 @@
+package org.example.Lab6;
+
+import java.util.regex.Matcher;
+
+/**
+ * Pulls tokens from a range of a CharSequence. Each pattern keeps one Matcher whose region is moved forward
+ * with the cursor, so nothing is copied except the values of the tokens produced.
+ */
+class TextTokenStream implements TokenStream {
+    private final CharSequence input;
+    private final Matcher[] matchers;
+    private final int limit;
+    private int pos;
+    private Token peeked;
+    // The token found by the last advance()
+    TokenType type;
+    int start;
+
+    // Scans only [from, to); offsets stay relative to the whole input
+    TextTokenStream(CharSequence input, int from, int to) {
+        this.input = input;
+        this.pos = from;
+        this.limit = to;
+        matchers = new Matcher[DSLTokenizer.patternCount()];
+        for (int i = 0; i < matchers.length; i++) {
+            matchers[i] = DSLTokenizer.pattern(i).matcher(input);
+        }
+    }
+
+    @Override
+    public Token peek() {
+        if (peeked == null && advance()) {
+            peeked = new Token(type, input.subSequence(start, pos).toString(), start, pos,
+                    Literals.decode(type, input, start, pos));
+        }
+        return peeked;
+    }
+
+    @Override
+    public Token next() {
+        Token token = peek();
+        peeked = null;
+        return token;
+    }
+
+    // Scans the next token into type, start and pos (its end); false at the end of input
+    boolean advance() {
+        // Same characters String.trim() drops
+        while (pos < limit && input.charAt(pos) <= ' ') {
+            pos++;
+        }
+        if (pos == limit) {
+            return false;
+        }
+
+        start = pos;
+        for (int i = 0; i < matchers.length; i++) {
+            Matcher matcher = matchers[i];
+            matcher.region(pos, limit);
+            if (matcher.lookingAt()) {
+                type = DSLTokenizer.typeOf(i);
+                pos = matcher.end();
+                return true;
+            }
+        }
+        type = TokenType.UNKNOWN;
+        pos++;
+        return true;
+    }
+
+    int end() {
+        return pos;
+    }
+}
@@ -1,16 +1,102 @@
 package org.example.Lab6;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public class Token {
+    // The only types with a decoded value, so the only ones whose pattern is worth checking
+    private static final Set<TokenType> DECODED_TYPES =
+            EnumSet.of(TokenType.IPV4_ADDRESS, TokenType.MAC_ADDRESS, TokenType.NUMBER);
+
     public final TokenType type;
-    public final String value;
+    // Offsets into the input (chars for text input, bytes for mapped files), -1 when unknown
+    public final long start;
+    public final long end;
+    private final TokenSource source;
+    private String value;
+    // IPv4, MAC and NUMBER tokens decoded at lex time, Literals.NONE otherwise
+    private final long decoded;
 
     public Token(TokenType type, String value) {
+        this(type, value, -1, -1);
+    }
+
+    // Values that do not match the lexer's pattern for their type, and null values, get no decoded value
+    public Token(TokenType type, String value, long start, long end) {
+        this(type, value, start, end, decode(type, value));
+    }
+
+    // Token the lexer matched, with the value it decoded
+    Token(TokenType type, String value, long start, long end, long decoded) {
         this.type = type;
         this.value = value;
+        this.start = start;
+        this.end = end;
+        this.source = null;
+        this.decoded = decoded;
+    }
+
+    // View over a token source; the value is cut out of it the first time it is read
+    Token(TokenType type, TokenSource source, long start, long end, long decoded) {
+        this.type = type;
+        this.source = source;
+        this.start = start;
+        this.end = end;
+        this.decoded = decoded;
+    }
+
+    private static long decode(TokenType type, String value) {
+        if (value == null || !DECODED_TYPES.contains(type) || !DSLTokenizer.matches(type, value)) {
+            return Literals.NONE;
+        }
+        return Literals.decode(type, value, 0, value.length());
+    }
+
+    public String value() {
+        if (value == null && source != null) {
+            value = source.decode(start, end);
+        }
+        return value;
+    }
+
+    // Compares without materializing the value of a view
+    public boolean valueEquals(String other) {
+        if (value != null) {
+            return value.equals(other);
+        }
+        if (source == null) {
+            return other == null;
+        }
+        return source.regionEquals(start, end, other);
+    }
+
+    // False for other token types and for addresses or numbers out of range
+    public boolean hasDecodedValue() {
+        return decoded != Literals.NONE;
+    }
+
+    public int ipv4() {
+        return (int) decoded(TokenType.IPV4_ADDRESS);
+    }
+
+    // The 48 address bits
+    public long mac() {
+        return decoded(TokenType.MAC_ADDRESS);
+    }
+
+    public long number() {
+        return decoded(TokenType.NUMBER);
+    }
+
+    private long decoded(TokenType expected) {
+        if (type != expected || decoded == Literals.NONE) {
+            throw Literals.noValue(expected, type);
+        }
+        return decoded;
     }
 
     @Override
     public String toString() {
-        return "(" + type + ", '" + value + "')";
+        return "(" + type + ", '" + value() + "')";
     }
 }
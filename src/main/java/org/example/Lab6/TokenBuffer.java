@@ -0,0 +1,129 @@
+package org.example.Lab6;
+
+import java.util.Arrays;
+
+/**
+ * Tokens stored as parallel arrays instead of objects: a type ordinal byte and start/end offsets per token,
+ * about 9 bytes each, plus a long for IPv4, MAC and NUMBER values decoded by the lexer. Arrays grow a chunk
+ * at a time, so nothing is copied as the buffer fills. Offsets are kept relative to the first token of their
+ * chunk, which lets int arrays address inputs larger than 2 GB. Values are cut out of the source only when
+ * asked for; {@link #get(int)} creates a {@link Token} view.
+ */
+public class TokenBuffer {
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private final TokenSource source;
+    private byte[][] types = new byte[4][];
+    private int[][] starts = new int[4][];
+    private int[][] ends = new int[4][];
+    private long[] bases = new long[4];
+    // Values decoded at lex time; a chunk's array is only allocated once it holds one
+    private long[][] decoded = new long[4][];
+    private int size = 0;
+
+    TokenBuffer(TokenSource source) {
+        this.source = source;
+    }
+
+    void add(TokenType type, long start, long end, long value) {
+        int chunk = size >>> CHUNK_SHIFT;
+        int slot = size & CHUNK_MASK;
+        if (slot == 0) {
+            if (chunk == types.length) {
+                types = Arrays.copyOf(types, chunk * 2);
+                starts = Arrays.copyOf(starts, chunk * 2);
+                ends = Arrays.copyOf(ends, chunk * 2);
+                bases = Arrays.copyOf(bases, chunk * 2);
+                decoded = Arrays.copyOf(decoded, chunk * 2);
+            }
+            types[chunk] = new byte[CHUNK_SIZE];
+            starts[chunk] = new int[CHUNK_SIZE];
+            ends[chunk] = new int[CHUNK_SIZE];
+            bases[chunk] = start;
+        }
+        if (end - bases[chunk] > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Token at offset " + start + " is too far from the start of its chunk");
+        }
+        types[chunk][slot] = (byte) type.ordinal();
+        starts[chunk][slot] = (int) (start - bases[chunk]);
+        ends[chunk][slot] = (int) (end - bases[chunk]);
+        if (value != Literals.NONE) {
+            if (decoded[chunk] == null) {
+                decoded[chunk] = new long[CHUNK_SIZE];
+                Arrays.fill(decoded[chunk], Literals.NONE);
+            }
+            decoded[chunk][slot] = value;
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public TokenType type(int index) {
+        checkIndex(index);
+        return TYPES[types[index >>> CHUNK_SHIFT][index & CHUNK_MASK]];
+    }
+
+    public long start(int index) {
+        checkIndex(index);
+        return bases[index >>> CHUNK_SHIFT] + starts[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public long end(int index) {
+        checkIndex(index);
+        return bases[index >>> CHUNK_SHIFT] + ends[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    public String value(int index) {
+        return source.decode(start(index), end(index));
+    }
+
+    public boolean valueEquals(int index, String other) {
+        return source.regionEquals(start(index), end(index), other);
+    }
+
+    public Token get(int index) {
+        return new Token(type(index), source, start(index), end(index), decoded(index));
+    }
+
+    public boolean hasDecodedValue(int index) {
+        return decoded(index) != Literals.NONE;
+    }
+
+    public int ipv4(int index) {
+        return (int) decoded(index, TokenType.IPV4_ADDRESS);
+    }
+
+    public long mac(int index) {
+        return decoded(index, TokenType.MAC_ADDRESS);
+    }
+
+    public long number(int index) {
+        return decoded(index, TokenType.NUMBER);
+    }
+
+    private long decoded(int index) {
+        checkIndex(index);
+        long[] values = decoded[index >>> CHUNK_SHIFT];
+        return values == null ? Literals.NONE : values[index & CHUNK_MASK];
+    }
+
+    private long decoded(int index, TokenType expected) {
+        long value = decoded(index);
+        if (value == Literals.NONE || type(index) != expected) {
+            throw Literals.noValue(expected, type(index));
+        }
+        return value;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Token " + index + " out of " + size);
+        }
+    }
+}
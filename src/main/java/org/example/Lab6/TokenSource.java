@@ -0,0 +1,25 @@
+package org.example.Lab6;
+
+/**
+ * The input that token offsets point into; values are cut out of it only on request.
+ */
+interface TokenSource {
+
+    String decode(long start, long end);
+
+    boolean regionEquals(long start, long end, String other);
+
+    static TokenSource of(String text) {
+        return new TokenSource() {
+            @Override
+            public String decode(long start, long end) {
+                return text.substring((int) start, (int) end);
+            }
+
+            @Override
+            public boolean regionEquals(long start, long end, String other) {
+                return end - start == other.length() && text.startsWith(other, (int) start);
+            }
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.Lab6;
+
+import java.util.List;
+
+/**
+ * Tokens pulled one at a time. {@link #peek()} and {@link #next()} return null at the end of input.
+ */
+public interface TokenStream {
+
+    Token peek();
+
+    Token next();
+
+    static TokenStream of(List<Token> tokens) {
+        return new TokenStream() {
+            private int position = 0;
+
+            @Override
+            public Token peek() {
+                return position < tokens.size() ? tokens.get(position) : null;
+            }
+
+            @Override
+            public Token next() {
+                return position < tokens.size() ? tokens.get(position++) : null;
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.Lab1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class TestSubstringSearcher {
+
+    private static final String[] NON_TERMINALS = {"S", "A", "B", "C"};
+
+    // Random right-linear grammar over {a, b, c}, or null if the automaton cannot be built from it
+    private static FiniteAutomaton randomAutomaton(Random random) {
+        Map<String, List<String>> productions = new HashMap<>();
+        for (String nonTerminal : NON_TERMINALS) {
+            List<String> rules = new ArrayList<>();
+            for (int i = 1 + random.nextInt(3); i > 0; i--) {
+                StringBuilder rule = new StringBuilder();
+                for (int j = 1 + random.nextInt(2); j > 0; j--) {
+                    rule.append("abc".charAt(random.nextInt(3)));
+                }
+                if (random.nextInt(3) > 0) {
+                    rule.append(NON_TERMINALS[random.nextInt(NON_TERMINALS.length)]);
+                }
+                rules.add(rule.toString());
+            }
+            if (random.nextInt(5) == 0) {
+                rules.add("");
+            }
+            productions.put(nonTerminal, rules);
+        }
+        try {
+            return new FiniteAutomaton(new Grammar("S", productions));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Leftmost-longest, non-overlapping, non-empty matches by trying every start and every end
+    private static List<Long> naiveMatches(FiniteAutomaton automaton, String text) {
+        List<Long> matches = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int end = -1;
+            for (int e = text.length(); e > start; e--) {
+                if (automaton.isAccepted(text.substring(start, e))) {
+                    end = e;
+                    break;
+                }
+            }
+            if (end < 0) {
+                start++;
+            } else {
+                matches.add((long) start);
+                matches.add((long) end);
+                start = end;
+            }
+        }
+        return matches;
+    }
+
+    private static List<Long> matches(FiniteAutomaton automaton, CharSequence text) {
+        List<Long> matches = new ArrayList<>();
+        automaton.findAll(text, (start, end) -> {
+            matches.add(start);
+            matches.add(end);
+        });
+        return matches;
+    }
+
+    private static List<Long> matches(FiniteAutomaton automaton, Path path) throws IOException {
+        List<Long> matches = new ArrayList<>();
+        automaton.findAll(path, (start, end) -> {
+            matches.add(start);
+            matches.add(end);
+        });
+        return matches;
+    }
+
+    private static String randomText(Random random, int length, String alphabet) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    @Test
+    public void testRandomGrammarsMatchNaiveSearch() throws IOException {
+        Random random = new Random(8);
+        Path file = Files.createTempFile("search", ".txt");
+        try {
+            int checked = 0;
+            for (int round = 0; round < 400; round++) {
+                FiniteAutomaton automaton = randomAutomaton(random);
+                if (automaton == null) continue;
+                String text = randomText(random, random.nextInt(80), round % 2 == 0 ? "abc" : "abcx");
+                List<Long> expected = naiveMatches(automaton, text);
+                assertEquals(expected, matches(automaton, text), "text " + text);
+                Files.write(file, text.getBytes(StandardCharsets.ISO_8859_1));
+                assertEquals(expected, matches(automaton, file), "file " + text);
+                checked++;
+            }
+            assertTrue(checked > 200);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testTextsSpanningSeveralBlocks() throws IOException {
+        // a(b)*c with a text of long b-runs: every a starts a match attempt that needs the reverse pass to stop
+        Map<String, List<String>> productions = new HashMap<>();
+        productions.put("S", List.of("aB"));
+        productions.put("B", List.of("bB", "c"));
+        FiniteAutomaton automaton = new FiniteAutomaton(new Grammar("S", productions));
+        Random random = new Random(3);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 300_000) {
+            text.append('a').append("b".repeat(random.nextInt(40_000)));
+            if (random.nextBoolean()) {
+                text.append('c');
+            }
+        }
+        List<Long> expected = new ArrayList<>();
+        for (int start = text.indexOf("a"); start >= 0; start = text.indexOf("a", start + 1)) {
+            int end = start + 1;
+            while (end < text.length() && text.charAt(end) == 'b') end++;
+            if (end < text.length() && text.charAt(end) == 'c') {
+                expected.add((long) start);
+                expected.add((long) end + 1);
+            }
+        }
+        assertEquals(expected, matches(automaton, text));
+        Path file = Files.createTempFile("search", ".txt");
+        try {
+            Files.write(file, text.toString().getBytes(StandardCharsets.ISO_8859_1));
+            assertEquals(expected, matches(automaton, file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
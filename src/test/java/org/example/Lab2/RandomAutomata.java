@@ -0,0 +1,115 @@
+package org.example.Lab2;
+
+import java.util.*;
+
+// Random automata and brute-force references shared by the Lab2 tests
+final class RandomAutomata {
+
+    private RandomAutomata() {
+    }
+
+    // States s0..s(n-1), start s0; each (state, symbol) gets up to three random targets
+    static FiniteAutomaton nfa(Random random, int states, String alphabet, double density, boolean epsilon) {
+        Set<String> names = new HashSet<>();
+        Set<Character> symbols = new HashSet<>();
+        Map<String, Map<Character, Set<String>>> transitions = new HashMap<>();
+        Set<String> finals = new HashSet<>();
+        for (char c : alphabet.toCharArray()) {
+            symbols.add(c);
+        }
+        for (int q = 0; q < states; q++) {
+            names.add("s" + q);
+            Map<Character, Set<String>> row = new HashMap<>();
+            for (char c : alphabet.toCharArray()) {
+                Set<String> targets = new HashSet<>();
+                for (int k = 0; k < 3; k++) {
+                    if (random.nextDouble() < density) {
+                        targets.add("s" + random.nextInt(states));
+                    }
+                }
+                if (!targets.isEmpty()) {
+                    row.put(c, targets);
+                }
+            }
+            if (epsilon && random.nextDouble() < 0.3) {
+                row.put(FiniteAutomaton.EPSILON, new HashSet<>(Set.of("s" + random.nextInt(states))));
+            }
+            transitions.put("s" + q, row);
+            if (random.nextDouble() < 0.25) {
+                finals.add("s" + q);
+            }
+        }
+        return new FiniteAutomaton(names, symbols, transitions, "s0", finals);
+    }
+
+    // Words over {a, b} whose k-th symbol from the end is a: the DFA needs 2^k states
+    static FiniteAutomaton kthFromEnd(int k) {
+        Set<String> names = new HashSet<>();
+        Map<String, Map<Character, Set<String>>> transitions = new HashMap<>();
+        for (int q = 0; q <= k; q++) {
+            names.add("q" + q);
+            transitions.put("q" + q, new HashMap<>());
+        }
+        transitions.get("q0").put('a', new HashSet<>(Set.of("q0", "q1")));
+        transitions.get("q0").put('b', new HashSet<>(Set.of("q0")));
+        for (int q = 1; q < k; q++) {
+            transitions.get("q" + q).put('a', new HashSet<>(Set.of("q" + (q + 1))));
+            transitions.get("q" + q).put('b', new HashSet<>(Set.of("q" + (q + 1))));
+        }
+        return new FiniteAutomaton(names, new HashSet<>(Set.of('a', 'b')), transitions, "q0",
+                new HashSet<>(Set.of("q" + k)));
+    }
+
+    // Every word over alphabet up to maxLength, shortest first
+    static List<String> words(String alphabet, int maxLength) {
+        List<String> words = new ArrayList<>();
+        words.add("");
+        for (int from = 0, length = 1; length <= maxLength; length++) {
+            int to = words.size();
+            for (int i = from; i < to; i++) {
+                for (char c : alphabet.toCharArray()) {
+                    words.add(words.get(i) + c);
+                }
+            }
+            from = to;
+        }
+        return words;
+    }
+
+    // Set simulation over the transition maps, epsilon moves included
+    static boolean accepts(FiniteAutomaton fa, String word) {
+        Map<String, Map<Character, Set<String>>> transitions = fa.transitions();
+        Set<String> current = closure(transitions, Set.of(fa.startState));
+        for (char c : word.toCharArray()) {
+            Set<String> next = new HashSet<>();
+            for (String state : current) {
+                Set<String> targets = transitions.getOrDefault(state, Map.of()).get(c);
+                if (targets != null) {
+                    next.addAll(targets);
+                }
+            }
+            current = closure(transitions, next);
+        }
+        for (String state : current) {
+            if (fa.finalStates.contains(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> closure(Map<String, Map<Character, Set<String>>> transitions, Set<String> states) {
+        Set<String> closure = new HashSet<>(states);
+        Deque<String> pending = new ArrayDeque<>(states);
+        while (!pending.isEmpty()) {
+            Set<String> targets = transitions.getOrDefault(pending.poll(), Map.of()).get(FiniteAutomaton.EPSILON);
+            if (targets == null) continue;
+            for (String target : targets) {
+                if (closure.add(target)) {
+                    pending.add(target);
+                }
+            }
+        }
+        return closure;
+    }
+}
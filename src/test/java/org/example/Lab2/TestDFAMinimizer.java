@@ -0,0 +1,96 @@
+package org.example.Lab2;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+public class TestDFAMinimizer {
+
+    // Naive Moore refinement with an explicit sink: the number of classes of the DFA's own states, not counting
+    // the sink's class, or 1 when every state behaves like the sink (the empty language keeps its start state)
+    private static int mooreStateCount(CompactDFA dfa) {
+        int n = dfa.stateCount + 1;
+        int sink = n - 1;
+        int k = dfa.symbolCount();
+        int[] classOf = new int[n];
+        for (int q = 0; q < dfa.stateCount; q++) {
+            classOf[q] = dfa.accepting[q] ? 1 : 0;
+        }
+        int classes = -1;
+        while (true) {
+            Map<List<Integer>, Integer> ids = new HashMap<>();
+            int[] next = new int[n];
+            for (int q = 0; q < n; q++) {
+                List<Integer> signature = new ArrayList<>();
+                signature.add(classOf[q]);
+                for (int a = 0; a < k; a++) {
+                    int t = q == sink ? CompactDFA.DEAD : dfa.next(q, a);
+                    signature.add(classOf[t == CompactDFA.DEAD ? sink : t]);
+                }
+                Integer id = ids.putIfAbsent(signature, ids.size());
+                next[q] = id == null ? ids.size() - 1 : id;
+            }
+            classOf = next;
+            if (ids.size() == classes) break;
+            classes = ids.size();
+        }
+        Set<Integer> kept = new HashSet<>();
+        for (int q = 0; q < dfa.stateCount; q++) {
+            if (classOf[q] != classOf[sink]) {
+                kept.add(classOf[q]);
+            }
+        }
+        return Math.max(1, kept.size());
+    }
+
+    @Test
+    public void testMatchesMooreRefinement() {
+        Random random = new Random(9);
+        List<String> words = RandomAutomata.words("abcx", 5);
+        for (int round = 0; round < 300; round++) {
+            FiniteAutomaton nfa = RandomAutomata.nfa(random, 1 + random.nextInt(8), round % 2 == 0 ? "ab" : "abc",
+                    0.35, round % 3 == 0);
+            CompactDFA dfa = DFAConverter.determinize(nfa);
+            CompactDFA minimal = DFAMinimizer.minimize(dfa);
+            assertEquals(mooreStateCount(dfa), minimal.stateCount, "round " + round);
+            assertEquals(minimal.stateCount, DFAMinimizer.minimize(minimal).stateCount);
+            for (String word : words) {
+                assertEquals(RandomAutomata.accepts(nfa, word), minimal.accepts(word), "round " + round + " " + word);
+            }
+            assertNull(nfa.distinguishingWord(nfa.minimize()));
+        }
+    }
+
+    @Test
+    public void testKnownMinimalSize() {
+        // The k-th symbol from the end being a needs all 2^k suffixes of length k
+        for (int k = 1; k <= 8; k++) {
+            CompactDFA dfa = DFAConverter.determinize(RandomAutomata.kthFromEnd(k));
+            assertEquals(1 << k, DFAMinimizer.minimize(dfa).stateCount);
+        }
+    }
+
+    @Test
+    public void testEmptyLanguageKeepsOneState() {
+        Map<String, Map<Character, Set<String>>> transitions = new HashMap<>();
+        transitions.put("p", new HashMap<>(Map.of('a', new HashSet<>(Set.of("q")), 'b', new HashSet<>(Set.of("p")))));
+        transitions.put("q", new HashMap<>(Map.of('a', new HashSet<>(Set.of("p")))));
+        // "r" is final but unreachable
+        transitions.put("r", new HashMap<>(Map.of('a', new HashSet<>(Set.of("r")))));
+        FiniteAutomaton nfa = new FiniteAutomaton(new HashSet<>(Set.of("p", "q", "r")), new HashSet<>(Set.of('a', 'b')),
+                transitions, "p", new HashSet<>(Set.of("r")));
+        CompactDFA dfa = DFAConverter.determinize(nfa);
+        assertEquals(2, dfa.stateCount);
+
+        CompactDFA minimal = DFAMinimizer.minimize(dfa);
+        assertEquals(1, minimal.stateCount);
+        assertFalse(minimal.accepting[0]);
+        for (int a = 0; a < minimal.symbolCount(); a++) {
+            assertEquals(CompactDFA.DEAD, minimal.next(0, a));
+        }
+        for (String word : RandomAutomata.words("ab", 6)) {
+            assertFalse(minimal.accepts(word), word);
+        }
+    }
+}
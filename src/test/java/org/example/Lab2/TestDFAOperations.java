@@ -0,0 +1,132 @@
+package org.example.Lab2;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+public class TestDFAOperations {
+
+    // Words over both alphabets plus a character neither automaton knows
+    private static final List<String> WORDS = RandomAutomata.words("abcx", 5);
+
+    // Breadth-first search over pairs of subsets of the two NFAs: length of a shortest word accepted by
+    // exactly one of them, or -1 if none exists
+    private static int shortestDistinguishingLength(FiniteAutomaton a, FiniteAutomaton b, String alphabet) {
+        Map<List<Set<String>>, Integer> depth = new HashMap<>();
+        Deque<List<Set<String>>> pending = new ArrayDeque<>();
+        List<Set<String>> start = List.of(reach(a, ""), reach(b, ""));
+        depth.put(start, 0);
+        pending.add(start);
+        while (!pending.isEmpty()) {
+            List<Set<String>> pair = pending.poll();
+            if (accepting(a, pair.get(0)) != accepting(b, pair.get(1))) {
+                return depth.get(pair);
+            }
+            for (char c : alphabet.toCharArray()) {
+                List<Set<String>> next = List.of(step(a, pair.get(0), c), step(b, pair.get(1), c));
+                if (depth.putIfAbsent(next, depth.get(pair) + 1) == null) {
+                    pending.add(next);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static Set<String> reach(FiniteAutomaton fa, String word) {
+        Set<String> states = closure(fa, Set.of(fa.startState));
+        for (char c : word.toCharArray()) {
+            states = step(fa, states, c);
+        }
+        return states;
+    }
+
+    private static Set<String> step(FiniteAutomaton fa, Set<String> states, char c) {
+        Set<String> next = new HashSet<>();
+        for (String state : states) {
+            next.addAll(fa.transitions().getOrDefault(state, Map.of()).getOrDefault(c, Set.of()));
+        }
+        return closure(fa, next);
+    }
+
+    private static Set<String> closure(FiniteAutomaton fa, Set<String> states) {
+        Set<String> closure = new HashSet<>(states);
+        Deque<String> pending = new ArrayDeque<>(states);
+        while (!pending.isEmpty()) {
+            for (String target : fa.transitions().getOrDefault(pending.poll(), Map.of())
+                    .getOrDefault(FiniteAutomaton.EPSILON, Set.of())) {
+                if (closure.add(target)) {
+                    pending.add(target);
+                }
+            }
+        }
+        return closure;
+    }
+
+    private static boolean accepting(FiniteAutomaton fa, Set<String> states) {
+        for (String state : states) {
+            if (fa.finalStates.contains(state)) return true;
+        }
+        return false;
+    }
+
+    @Test
+    public void testProductsMatchBruteForce() {
+        Random random = new Random(16);
+        for (int round = 0; round < 150; round++) {
+            // Alphabets overlap only partly, so merged classes include chars missing from one side
+            FiniteAutomaton a = RandomAutomata.nfa(random, 1 + random.nextInt(5), "ab", 0.4, round % 2 == 0);
+            FiniteAutomaton b = RandomAutomata.nfa(random, 1 + random.nextInt(5), round % 3 == 0 ? "ab" : "bc",
+                    0.4, round % 3 == 1);
+            CompactDFA da = DFAConverter.determinize(a);
+            CompactDFA db = DFAConverter.determinize(b);
+            CompactDFA intersection = DFAOperations.intersection(da, db);
+            CompactDFA union = DFAOperations.union(da, db);
+            CompactDFA difference = DFAOperations.difference(da, db);
+            FiniteAutomaton unionFA = a.union(b);
+            for (String word : WORDS) {
+                boolean inA = RandomAutomata.accepts(a, word);
+                boolean inB = RandomAutomata.accepts(b, word);
+                assertEquals(inA && inB, intersection.accepts(word), "intersection " + word);
+                assertEquals(inA || inB, union.accepts(word), "union " + word);
+                assertEquals(inA && !inB, difference.accepts(word), "difference " + word);
+                assertEquals(inA || inB, unionFA.accepts(word), "union automaton " + word);
+            }
+        }
+    }
+
+    @Test
+    public void testDistinguishingWordMatchesBruteForce() {
+        Random random = new Random(61);
+        int equivalent = 0;
+        for (int round = 0; round < 300; round++) {
+            FiniteAutomaton a = RandomAutomata.nfa(random, 1 + random.nextInt(5), "ab", 0.4, round % 2 == 0);
+            FiniteAutomaton b;
+            int kind = round % 4;
+            if (kind == 0) {
+                b = RandomAutomata.nfa(random, 1 + random.nextInt(5), "ab", 0.4, false);
+            } else if (kind == 1) {
+                b = DFAConverter.convertNDFAtoDFA(a);
+            } else if (kind == 2) {
+                b = a.union(a.intersection(RandomAutomata.nfa(random, 3, "ab", 0.4, false)));
+            } else {
+                b = RandomAutomata.nfa(random, 1 + random.nextInt(4), "bc", 0.5, true);
+            }
+
+            int expected = shortestDistinguishingLength(a, b, "abc");
+            String word = a.distinguishingWord(b);
+            if (expected < 0) {
+                equivalent++;
+                assertNull(word);
+                assertTrue(a.isEquivalent(b));
+                assertTrue(b.isEquivalent(a));
+            } else {
+                assertNotNull(word, "round " + round);
+                assertTrue(word.length() >= expected);
+                assertNotEquals(RandomAutomata.accepts(a, word), RandomAutomata.accepts(b, word), "word " + word);
+                assertFalse(a.isEquivalent(b));
+            }
+        }
+        assertTrue(equivalent >= 150);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.Lab2;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+public class TestExternalDeterminizer {
+
+    private static final long HEAP_BUDGET = 1 << 20;
+
+    private static void assertSameDFA(CompactDFA expected, MappedDFA actual) {
+        assertEquals(expected.stateCount, actual.stateCount());
+        assertEquals(expected.symbolCount(), actual.symbolCount());
+        for (int q = 0; q < expected.stateCount; q++) {
+            assertEquals(expected.accepting[q], actual.isAccepting(q), "accepting " + q);
+            for (int symbol = 0; symbol < expected.symbolCount(); symbol++) {
+                assertEquals(expected.next(q, symbol), actual.next(q, symbol), "state " + q + " symbol " + symbol);
+            }
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesInMemoryDeterminizerAcrossRehashes() throws IOException {
+        Path dir = Files.createTempDirectory("determinize");
+        try {
+            Random random = new Random(17);
+            for (int round = 0; round < 100; round++) {
+                FiniteAutomaton nfa = RandomAutomata.nfa(random, 1 + random.nextInt(12), "abc", 0.4, round % 2 == 0);
+                Path output = dir.resolve("dfa-" + round + ".lfa");
+                MappedDFA mapped = ExternalDeterminizer.determinize(IndexedNFA.of(nfa), dir.resolve("work"), output,
+                        HEAP_BUDGET, 2);
+                assertSameDFA(DFAConverter.determinize(nfa), mapped);
+            }
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    @Test
+    public void testManyRehashesLeaveNoWorkFiles() throws IOException {
+        Path dir = Files.createTempDirectory("determinize");
+        try {
+            FiniteAutomaton nfa = RandomAutomata.kthFromEnd(12);
+            Path work = dir.resolve("work");
+            // 4096 states starting from 4 slots: eleven rehashes
+            MappedDFA mapped = ExternalDeterminizer.determinize(IndexedNFA.of(nfa), work, dir.resolve("dfa.lfa"),
+                    HEAP_BUDGET, 4);
+            assertEquals(4096, mapped.stateCount());
+            assertSameDFA(DFAConverter.determinize(nfa), mapped);
+            try (Stream<Path> left = Files.list(work)) {
+                assertEquals(0, left.count());
+            }
+        } finally {
+            deleteTree(dir);
+        }
+    }
+
+    @Test
+    public void testPublicEntryPoint() throws IOException {
+        Path dir = Files.createTempDirectory("determinize");
+        try {
+            FiniteAutomaton nfa = RandomAutomata.kthFromEnd(5);
+            MappedDFA mapped = DFAConverter.determinizeToFile(nfa, dir.resolve("work"), dir.resolve("dfa.lfa"), HEAP_BUDGET);
+            for (String word : RandomAutomata.words("ab", 9)) {
+                assertEquals(RandomAutomata.accepts(nfa, word), mapped.accepts(word), word);
+            }
+        } finally {
+            deleteTree(dir);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.Lab2;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+public class TestLazyDFA {
+
+    private static String randomWord(Random random, String alphabet, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return word.toString();
+    }
+
+    @Test
+    public void testTinyCacheFlushes() {
+        // 16 DFA states through a 2-state cache: long words run long enough to pay for flushing it
+        FiniteAutomaton nfa = RandomAutomata.kthFromEnd(4);
+        LazyDFA lazy = new LazyDFA(nfa, 2);
+        Random random = new Random(1);
+        long flushes = lazy.flushes();
+        for (int round = 0; round < 50; round++) {
+            String word = randomWord(random, "ab", 200 + random.nextInt(200));
+            assertEquals(nfa.accepts(word), lazy.accepts(word), word);
+            assertTrue(lazy.cachedStates() <= 2);
+        }
+        assertTrue(lazy.flushes() > flushes);
+    }
+
+    @Test
+    public void testTinyCacheFallsBackToSimulation() {
+        // Short words fill the cache long before it has paid off, so matching falls back to the NFA
+        FiniteAutomaton nfa = RandomAutomata.kthFromEnd(4);
+        LazyDFA lazy = new LazyDFA(nfa, 2);
+        Random random = new Random(2);
+        long fallbacks = lazy.fallbacks();
+        for (int round = 0; round < 200; round++) {
+            String word = randomWord(random, "ab", random.nextInt(12));
+            assertEquals(nfa.accepts(word), lazy.accepts(word), word);
+        }
+        assertTrue(lazy.fallbacks() > fallbacks);
+    }
+
+    @Test
+    public void testRandomNFAsWithSmallCaches() {
+        Random random = new Random(11);
+        long flushes = 0;
+        long fallbacks = 0;
+        for (int round = 0; round < 200; round++) {
+            FiniteAutomaton nfa = RandomAutomata.nfa(random, 2 + random.nextInt(20), "ab", 0.35, true);
+            LazyDFA two = new LazyDFA(nfa, 2);
+            LazyDFA three = new LazyDFA(nfa, 3);
+            for (int k = 0; k < 50; k++) {
+                String word = randomWord(random, "abx", random.nextInt(10) == 0 ? 200 : random.nextInt(12));
+                boolean expected = RandomAutomata.accepts(nfa, word);
+                assertEquals(expected, nfa.accepts(word), word);
+                assertEquals(expected, two.accepts(word), word);
+                assertEquals(expected, three.accepts(word), word);
+            }
+            flushes += two.flushes() + three.flushes();
+            fallbacks += two.fallbacks() + three.fallbacks();
+        }
+        assertTrue(flushes > 0);
+        assertTrue(fallbacks > 0);
+    }
+
+    @Test
+    public void testCacheNeedsTwoStates() {
+        assertThrows(IllegalArgumentException.class, () -> new LazyDFA(RandomAutomata.kthFromEnd(2), 1));
+    }
+}
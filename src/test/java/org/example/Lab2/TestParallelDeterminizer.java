@@ -0,0 +1,61 @@
+package org.example.Lab2;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+public class TestParallelDeterminizer {
+
+    private static final int[] POOL_SIZES = {1, 2, 3, 8};
+
+    // Same numbering, table, accepting flags and names as the sequential construction
+    private static void assertSameDFA(CompactDFA expected, CompactDFA actual, String context) {
+        assertEquals(expected.stateCount, actual.stateCount, context);
+        assertEquals(expected.symbolCount(), actual.symbolCount(), context);
+        int cells = expected.stateCount * expected.symbolCount();
+        assertTrue(Arrays.equals(expected.table, 0, cells, actual.table, 0, cells), context + ": table");
+        assertTrue(Arrays.equals(expected.accepting, 0, expected.stateCount, actual.accepting, 0, expected.stateCount),
+                context + ": accepting");
+        for (int q = 0; q < expected.stateCount; q++) {
+            assertEquals(expected.stateName(q), actual.stateName(q), context);
+        }
+    }
+
+    private static void forEachPool(FiniteAutomaton nfa, CompactDFA expected, String context) {
+        for (int size : POOL_SIZES) {
+            ForkJoinPool pool = new ForkJoinPool(size);
+            try {
+                // Repeated runs see different thread timings
+                for (int run = 0; run < 3; run++) {
+                    assertSameDFA(expected, DFAConverter.determinizeParallel(nfa, pool),
+                            context + ", pool " + size + ", run " + run);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testRandomNFAsMatchSequential() {
+        Random random = new Random(13);
+        for (int round = 0; round < 60; round++) {
+            FiniteAutomaton nfa = RandomAutomata.nfa(random, 1 + random.nextInt(16), "abc", 0.3, round % 2 == 0);
+            forEachPool(nfa, DFAConverter.determinize(nfa), "round " + round);
+        }
+    }
+
+    @Test
+    public void testWideLevelsMatchSequential() {
+        // Levels of up to 2^9 subsets, so each one is split over many tasks
+        FiniteAutomaton nfa = RandomAutomata.kthFromEnd(10);
+        CompactDFA expected = DFAConverter.determinize(nfa);
+        assertEquals(1024, expected.stateCount);
+        forEachPool(nfa, expected, "k = 10");
+
+        FiniteAutomaton dense = RandomAutomata.nfa(new Random(4), 14, "ab", 0.5, true);
+        forEachPool(dense, DFAConverter.determinize(dense), "dense");
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.Lab3;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.regex.*;
+
+public class TestDSLTokenizer {
+
+    private static final String[] KEYWORDS = {
+            "network", "device", "module", "slot", "interface", "vlan", "route", "dhcp", "acl", "link",
+            "coordinates", "power", "gateway", "dns", "bandwidth", "allow", "deny", "from", "to", "pool",
+            "name", "desc", "cable", "length", "functional", "static"
+    };
+
+    // The regex tokenizer the DFA replaced: anchored patterns tried in priority order, first match wins
+    private static final List<Pattern> PATTERNS = new ArrayList<>();
+    private static final List<String> TYPES = new ArrayList<>();
+
+    static {
+        addPattern("IPV4_ADDRESS", "(?:\\d{1,3}\\.){3}\\d{1,3}");
+        addPattern("MAC_ADDRESS", "[0-9A-Fa-f]{4}\\.[0-9A-Fa-f]{4}\\.[0-9A-Fa-f]{4}");
+        addPattern("STRING", "\"[^\"]*\"");
+        addPattern("NUMBER", "\\d+");
+        for (String keyword : KEYWORDS) {
+            addPattern("KEYWORD_" + keyword.toUpperCase(), "\\b" + keyword + "\\b");
+        }
+        addPattern("ID", "[a-zA-Z_][a-zA-Z0-9_-]*");
+    }
+
+    private static void addPattern(String type, String regex) {
+        PATTERNS.add(Pattern.compile("^" + regex));
+        TYPES.add(type);
+    }
+
+    private static List<String> regexTokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        String remaining = text.trim();
+        outer:
+        while (!remaining.isEmpty()) {
+            for (int i = 0; i < PATTERNS.size(); i++) {
+                Matcher matcher = PATTERNS.get(i).matcher(remaining);
+                if (matcher.find()) {
+                    tokens.add(TYPES.get(i) + " " + matcher.group());
+                    remaining = remaining.substring(matcher.end()).trim();
+                    continue outer;
+                }
+            }
+            break;
+        }
+        return tokens;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String[] token : DSLTokenizer.tokenize(text)) {
+            tokens.add(token[0] + " " + token[1]);
+        }
+        return tokens;
+    }
+
+    // No fragment starts with '-', so a keyword is never glued to a hyphen (see testKeywordWithHyphen), and
+    // "é" comes after a space, since before JDK 19 "\b" counted non-ASCII letters as word characters
+    private static final String[] FRAGMENTS = {
+            "device", "devices", "vlan", "to", "tox", "static_", "network1", "desc", "192.168.0.1", "1.2.3",
+            "1.2.3.4567", "1.2.3.4.5", "00ab.cd34.ef56", "9999.aaaa.bbbb", "abcd.1234", "dead", "12", "1234",
+            "\"hi there\"", "\"device\"", "\"\"", "eth0", "_x", "a-b", "x-", "Z9", " é", ";", "  ", "\n", "\t"
+    };
+
+    @Test
+    public void testRandomTextMatchesRegexTokenizer() {
+        Random random = new Random(18);
+        for (int round = 0; round < 5000; round++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(10); i > 0; i--) {
+                text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                if (random.nextInt(3) > 0) {
+                    text.append(' ');
+                }
+            }
+            assertEquals(regexTokenize(text.toString()), tokenize(text.toString()), "<" + text + ">");
+        }
+    }
+
+    // On equal-length candidates the first of IPV4_ADDRESS, MAC_ADDRESS, STRING, NUMBER, ID wins
+    @Test
+    public void testPriorityTies() {
+        String[][] cases = {
+                {"192.168.0.1", "IPV4_ADDRESS 192.168.0.1"},
+                {"999.999.999.999", "IPV4_ADDRESS 999.999.999.999"},
+                {"1.2.3.4567", "IPV4_ADDRESS 1.2.3.456", "NUMBER 7"},
+                {"1.2.3.4.5", "IPV4_ADDRESS 1.2.3.4"},
+                {"1.2.3", "NUMBER 1"},
+                {"1234.5678.9012", "MAC_ADDRESS 1234.5678.9012"},
+                {"0000.0000.0000", "MAC_ADDRESS 0000.0000.0000"},
+                {"dead.BEEF.cafe", "MAC_ADDRESS dead.BEEF.cafe"},
+                {"abcd.1234.ef01x", "MAC_ADDRESS abcd.1234.ef01", "ID x"},
+                {"abcd.1234", "ID abcd"},
+                {"12345", "NUMBER 12345"},
+                {"12device", "NUMBER 12", "KEYWORD_DEVICE device"},
+                {"dead", "ID dead"},
+        };
+        for (String[] c : cases) {
+            List<String> expected = Arrays.asList(c).subList(1, c.length);
+            assertEquals(expected, regexTokenize(c[0]), c[0]);
+            assertEquals(expected, tokenize(c[0]), c[0]);
+        }
+    }
+
+    // The one documented difference: "\bdevice\b" matched the front of "device-x" and left "-x" unknown,
+    // while the longest match is the whole ID
+    @Test
+    public void testKeywordWithHyphen() {
+        assertEquals(List.of("KEYWORD_DEVICE device"), regexTokenize("device-x vlan 10"));
+        assertEquals(List.of("ID device-x", "KEYWORD_VLAN vlan", "NUMBER 10"), tokenize("device-x vlan 10"));
+        assertEquals(List.of("ID to-"), tokenize("to-"));
+        assertEquals(List.of("ID devices", "ID tox"), tokenize("devices tox"));
+    }
+
+    @Test
+    public void testStopsAtUnknownCharacter() {
+        assertEquals(List.of("KEYWORD_DEVICE device", "ID r1"), tokenize("device r1 # comment"));
+        assertEquals(regexTokenize("device r1 # comment"), tokenize("device r1 # comment"));
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.Lab6;
+
+import java.util.Random;
+
+// Random DSL text for comparing the tokenizers and parsers against each other
+final class RandomInventory {
+
+    // Keywords inside and around other tokens, literals in and out of range, unterminated strings,
+    // characters the lexer does not know, multi-byte UTF-8 and every kind of whitespace
+    static final String[] FRAGMENTS = {
+            "device", "device", "device device", "interface", "ip", "vlan", "r1", "sw-2", "eth0", "eth0-1", "_x",
+            "10", "42", "0", "99999999999999999999",
+            "1.2.3.4", "192.168.1.1", "10.0.0.255", "999.1.1.1", "1.2.3", "1.2.3.4.5",
+            "00ab.cd34.ef56", "aBcD.1234.ef01", "abcd.1234",
+            "\"x device y\"", "\"device\"", "\"quoted text\"", "\"\"", "\"", "\"a\nb\"", "\"é device\"",
+            "{", "}", ";", ".", "-", "#",
+            "xdevice", "devices", "device-1", "device_2", "12device", "d", "dev", "ice",
+            "é", "日本", "😀", "édevice", "device日本", "日本device", " device",
+            " ", "  ", "\n", "\t", "\r"
+    };
+
+    private RandomInventory() {
+    }
+
+    static String randomText(Random random, int fragments) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < fragments; i++) {
+            text.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            if (random.nextInt(3) > 0) {
+                text.append(' ');
+            }
+        }
+        return text.toString();
+    }
+
+    // One line per node, children indented under their parent
+    static String render(ASTNode node) {
+        StringBuilder out = new StringBuilder();
+        render(node, "", out);
+        return out.toString();
+    }
+
+    private static void render(ASTNode node, String indent, StringBuilder out) {
+        out.append(indent).append(node.type).append(": ").append(node.value).append('\n');
+        for (ASTNode child : node.children) {
+            render(child, indent + "  ", out);
+        }
+    }
+}
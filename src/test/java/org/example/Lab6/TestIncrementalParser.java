@@ -0,0 +1,118 @@
+package org.example.Lab6;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+import static org.example.Lab6.RandomInventory.*;
+
+public class TestIncrementalParser {
+
+    // Pieces that cut or complete a "device" keyword, and quotes that open or close strings
+    private static final String[] INSERTS = {"\"", "\"", "d", "e", "v", "i", "c", "device", "x", "-", "_", "1", " ", "\n"};
+
+    private static void assertParsedLikeFresh(IncrementalParser parser, String text, String step) {
+        assertEquals(text, parser.text().toString(), step);
+        assertEquals(render(new Parser(DSLTokenizer.tokenize(text)).parse()), render(parser.ast()), step);
+    }
+
+    // Offsets inside or right around a "device" or a quote, at either end of the text, or anywhere
+    private static int randomOffset(Random random, String text) {
+        int choice = random.nextInt(6);
+        if (choice == 0) {
+            return 0;
+        }
+        if (choice == 1) {
+            return text.length();
+        }
+        if (choice <= 3) {
+            String target = choice == 2 ? "device" : "\"";
+            int found = text.indexOf(target, random.nextInt(text.length() + 1));
+            if (found >= 0) {
+                return Math.min(text.length(), found + random.nextInt(target.length() + 1));
+            }
+        }
+        return random.nextInt(text.length() + 1);
+    }
+
+    @Test
+    public void testRandomEditsMatchFullParse() {
+        Random random = new Random(25);
+        for (int round = 0; round < 200; round++) {
+            String text = randomText(random, random.nextInt(120));
+            IncrementalParser parser = new IncrementalParser(text);
+            assertParsedLikeFresh(parser, text, "initial <" + text + ">");
+            for (int step = 0; step < 50; step++) {
+                int offset = randomOffset(random, text);
+                int removed = Math.min(text.length() - offset, random.nextInt(4) == 0 ? random.nextInt(20) : random.nextInt(3));
+                StringBuilder inserted = new StringBuilder();
+                for (int i = random.nextInt(3); i > 0; i--) {
+                    inserted.append(random.nextBoolean() ? INSERTS[random.nextInt(INSERTS.length)]
+                            : FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+                }
+                String before = text;
+                text = text.substring(0, offset) + inserted + text.substring(offset + removed);
+                parser.edit(offset, removed, inserted);
+                assertParsedLikeFresh(parser, text,
+                        "edit (" + offset + ", " + removed + ", <" + inserted + ">) of <" + before + ">");
+            }
+        }
+    }
+
+    @Test
+    public void testQuotesOpenedAndClosedFarFromEachOther() {
+        StringBuilder doc = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            doc.append("device r").append(i).append(" vlan ").append(i).append(" desc \"x device y\"\n");
+        }
+        String text = doc.toString();
+        IncrementalParser parser = new IncrementalParser(text);
+        Random random = new Random(11);
+        for (int step = 0; step < 200; step++) {
+            int offset = random.nextInt(text.length() + 1);
+            String inserted = "";
+            int removed = 0;
+            int quote = text.indexOf('"', offset);
+            if (random.nextBoolean() || quote < 0) {
+                inserted = "\"";
+            } else {
+                offset = quote;
+                removed = 1;
+            }
+            text = text.substring(0, offset) + inserted + text.substring(offset + removed);
+            parser.edit(offset, removed, inserted);
+            assertParsedLikeFresh(parser, text, "step " + step);
+        }
+    }
+
+    @Test
+    public void testDeviceKeywordTypedAndDeletedAtEnds() {
+        IncrementalParser parser = new IncrementalParser("");
+        String text = "";
+        String typed = "device r1 vlan 10\n";
+        for (int i = 0; i < typed.length(); i++) {
+            text = typed.charAt(i) + text;
+            parser.edit(0, 0, String.valueOf(typed.charAt(i)));
+            assertParsedLikeFresh(parser, text, "prepend " + i);
+            text = text + typed.charAt(i);
+            parser.edit(text.length() - 1, 0, String.valueOf(typed.charAt(i)));
+            assertParsedLikeFresh(parser, text, "append " + i);
+        }
+        while (!text.isEmpty()) {
+            boolean front = text.length() % 2 == 0;
+            text = front ? text.substring(1) : text.substring(0, text.length() - 1);
+            parser.edit(front ? 0 : text.length(), 1, "");
+            assertParsedLikeFresh(parser, text, "delete at " + (front ? "start" : "end"));
+        }
+        assertTrue(parser.ast().children.isEmpty());
+    }
+
+    @Test
+    public void testEditOutOfRange() {
+        IncrementalParser parser = new IncrementalParser("device r1");
+        assertThrows(IndexOutOfBoundsException.class, () -> parser.edit(-1, 0, "x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> parser.edit(5, 5, "x"));
+        assertThrows(IndexOutOfBoundsException.class, () -> parser.edit(0, -1, "x"));
+    }
+}
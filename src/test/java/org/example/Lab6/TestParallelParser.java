@@ -0,0 +1,80 @@
+package org.example.Lab6;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.example.Lab6.RandomInventory.*;
+
+public class TestParallelParser {
+
+    private static final int[] BLOCK_SIZES = {1, 2, 3, 5, 8, 13, 64};
+
+    @Test
+    public void testTextSplitsMatchSequentialParse() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Random random = new Random(24);
+            for (int round = 0; round < 300; round++) {
+                String text = randomText(random, random.nextInt(80));
+                String expected = render(new Parser(DSLTokenizer.tokenize(text)).parse());
+                for (int blockSize : BLOCK_SIZES) {
+                    ASTNode parallel = ParallelParser.parse(ParallelParser.of(text), pool, blockSize);
+                    assertEquals(expected, render(parallel), "block size " + blockSize + " on <" + text + ">");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Mapped input is split by byte, so split points also fall inside multi-byte UTF-8 sequences
+    @Test
+    public void testMappedSplitsMatchSequentialParse() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Path file = Files.createTempFile("inventory", ".txt");
+        try {
+            Random random = new Random(42);
+            for (int round = 0; round < 100; round++) {
+                String text = randomText(random, random.nextInt(80));
+                Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+                String expected = render(new Parser(DSLTokenizer.stream(file)).parse());
+                MappedInput input = MappedInput.map(file);
+                for (int blockSize : BLOCK_SIZES) {
+                    ASTNode parallel = ParallelParser.parse(ParallelParser.of(input), pool, blockSize);
+                    assertEquals(expected, render(parallel), "block size " + blockSize + " on <" + text + ">");
+                }
+            }
+        } finally {
+            pool.shutdown();
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLargeInputThroughPublicApi() throws IOException {
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(3);
+        while (text.length() < 3 << 20) {
+            text.append(randomText(random, 50)).append('\n');
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Path file = Files.createTempFile("inventory", ".txt");
+        try {
+            Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+            assertEquals(render(new Parser(DSLTokenizer.tokenize(text)).parse()),
+                    render(Parser.parseParallel(text, pool)));
+            assertEquals(render(new Parser(DSLTokenizer.stream(file)).parse()),
+                    render(Parser.parseParallel(file, pool)));
+        } finally {
+            pool.shutdown();
+            Files.delete(file);
+        }
+    }
+}
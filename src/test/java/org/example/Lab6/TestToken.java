@@ -0,0 +1,54 @@
+package org.example.Lab6;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestToken {
+
+    @Test
+    public void testWellFormedValuesAreDecoded() {
+        assertEquals(0xC0A80101, new Token(TokenType.IPV4_ADDRESS, "192.168.1.1").ipv4());
+        assertEquals(0xABCD1234EF01L, new Token(TokenType.MAC_ADDRESS, "aBcD.1234.ef01").mac());
+        assertEquals(42, new Token(TokenType.NUMBER, "42").number());
+    }
+
+    @Test
+    public void testMalformedValuesAreNotDecoded() {
+        String[][] cases = {
+                {"IPV4_ADDRESS", "999.1.1"}, {"IPV4_ADDRESS", "1.2.3.4.5"}, {"IPV4_ADDRESS", "a.b.c.d"},
+                {"IPV4_ADDRESS", "1.2.3.4 "}, {"IPV4_ADDRESS", ""}, {"MAC_ADDRESS", "abcd.1234"},
+                {"MAC_ADDRESS", "ghij.1234.ef01"}, {"NUMBER", "-1"}, {"NUMBER", "4x2"}, {"NUMBER", ""}
+        };
+        for (String[] c : cases) {
+            Token token = new Token(TokenType.valueOf(c[0]), c[1]);
+            assertFalse(token.hasDecodedValue(), c[0] + " '" + c[1] + "'");
+            assertEquals(c[1], token.value());
+        }
+        assertThrows(IllegalStateException.class, () -> new Token(TokenType.IPV4_ADDRESS, "999.1.1").ipv4());
+    }
+
+    @Test
+    public void testOutOfRangeValuesAreNotDecoded() {
+        assertFalse(new Token(TokenType.IPV4_ADDRESS, "256.0.0.1").hasDecodedValue());
+        assertFalse(new Token(TokenType.NUMBER, "99999999999999999999").hasDecodedValue());
+    }
+
+    @Test
+    public void testOtherTypesAreNotDecoded() {
+        assertFalse(new Token(TokenType.ID, "42").hasDecodedValue());
+        assertFalse(new Token(TokenType.STRING, "\"10.0.0.1\"").hasDecodedValue());
+        assertThrows(IllegalStateException.class, () -> new Token(TokenType.ID, "42").number());
+    }
+
+    @Test
+    public void testNullValue() {
+        for (TokenType type : TokenType.values()) {
+            Token token = new Token(type, null);
+            assertFalse(token.hasDecodedValue(), type.toString());
+            assertNull(token.value());
+            assertTrue(token.valueEquals(null));
+            assertFalse(token.valueEquals("x"));
+            assertEquals("(" + type + ", 'null')", token.toString());
+        }
+    }
+}
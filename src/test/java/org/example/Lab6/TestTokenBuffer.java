@@ -0,0 +1,88 @@
+package org.example.Lab6;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.example.Lab6.RandomInventory.*;
+
+public class TestTokenBuffer {
+
+    // Same tokens, offsets, values and decoded literals as the object list
+    private static void assertSameTokens(List<Token> expected, TokenBuffer buffer, boolean sameOffsets) {
+        assertEquals(expected.size(), buffer.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Token token = expected.get(i);
+            String at = "token " + i + " " + token;
+            assertEquals(token.type, buffer.type(i), at);
+            if (sameOffsets) {
+                assertEquals(token.start, buffer.start(i), at);
+                assertEquals(token.end, buffer.end(i), at);
+            }
+            assertEquals(token.value(), buffer.value(i), at);
+            assertTrue(buffer.valueEquals(i, token.value()), at);
+            assertEquals(token.toString(), buffer.get(i).toString(), at);
+            assertEquals(token.hasDecodedValue(), buffer.hasDecodedValue(i), at);
+            if (token.hasDecodedValue()) {
+                if (token.type == TokenType.IPV4_ADDRESS) {
+                    assertEquals(token.ipv4(), buffer.ipv4(i), at);
+                } else if (token.type == TokenType.MAC_ADDRESS) {
+                    assertEquals(token.mac(), buffer.mac(i), at);
+                } else {
+                    assertEquals(token.number(), buffer.number(i), at);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRandomTextMatchesTokenize() {
+        Random random = new Random(22);
+        for (int round = 0; round < 300; round++) {
+            String text = randomText(random, random.nextInt(60));
+            assertSameTokens(DSLTokenizer.tokenize(text), DSLTokenizer.buffer(text), true);
+        }
+    }
+
+    @Test
+    public void testBufferSpanningChunks() {
+        String text = randomText(new Random(7), 120_000);
+        List<Token> tokens = DSLTokenizer.tokenize(text);
+        assertTrue(tokens.size() > 3 * 16384);
+        assertSameTokens(tokens, DSLTokenizer.buffer(text), true);
+    }
+
+    @Test
+    public void testMappedFileMatchesTokenize() throws IOException {
+        Random random = new Random(5);
+        Path file = Files.createTempFile("tokens", ".txt");
+        try {
+            for (int round = 0; round < 20; round++) {
+                // Outside the BMP the text scanner makes one UNKNOWN per char, the mapped one per character
+                String text = randomText(random, random.nextInt(2000)).replace("😀", "ü");
+                Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+                // Mapped offsets count bytes, so they only line up with char offsets for ASCII text
+                boolean ascii = text.chars().allMatch(c -> c < 0x80);
+                assertSameTokens(DSLTokenizer.tokenize(text), DSLTokenizer.buffer(file), ascii);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testWrongTypeHasNoDecodedValue() {
+        TokenBuffer buffer = DSLTokenizer.buffer("device 10.0.0.1 42");
+        assertFalse(buffer.hasDecodedValue(0));
+        assertThrows(IllegalStateException.class, () -> buffer.number(0));
+        assertThrows(IllegalStateException.class, () -> buffer.mac(1));
+        assertEquals(0x0A000001, buffer.ipv4(1));
+        assertEquals(42, buffer.number(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.type(3));
+    }
+}